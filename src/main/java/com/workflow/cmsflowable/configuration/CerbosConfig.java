@@ -1,5 +1,6 @@
 package com.workflow.cmsflowable.configuration;
 
+import dev.cerbos.sdk.CerbosAsyncClient;
 import dev.cerbos.sdk.CerbosClientBuilder;
 import dev.cerbos.sdk.CerbosBlockingClient;
 import org.springframework.beans.factory.annotation.Value;
@@ -72,6 +73,34 @@ public class CerbosConfig {
         }
     }
     
+    /**
+     * Non-blocking client for single checks, so a slow PDP does not hold request threads
+     * beyond the call deadline; null when it cannot be created (callers use the blocking client)
+     */
+    @Bean
+    public CerbosAsyncClient cerbosAsyncClient() {
+        try {
+            Class.forName("io.grpc.InternalGlobalInterceptors");
+            
+            CerbosClientBuilder builder = new CerbosClientBuilder(cerbosHost + ":" + cerbosPort);
+            
+            if (!tlsEnabled) {
+                builder = builder.withPlaintext();
+            }
+            
+            CerbosAsyncClient client = builder.buildAsyncClient();
+            
+            log.info("Successfully created async Cerbos client for {}:{} (TLS: {})", 
+                cerbosHost, cerbosPort, tlsEnabled);
+                
+            return client;
+            
+        } catch (Exception e) {
+            log.warn("Failed to create async Cerbos client, blocking client will be used: {}", e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Check if Cerbos service is available
      */
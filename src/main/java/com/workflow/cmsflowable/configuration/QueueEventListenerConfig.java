@@ -3,6 +3,7 @@ package com.workflow.cmsflowable.configuration;
 import com.workflow.cmsflowable.service.QueueTaskEventListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
 import org.flowable.engine.ProcessEngine;
 import org.springframework.context.annotation.Configuration;
 
@@ -19,7 +20,10 @@ public class QueueEventListenerConfig {
     @PostConstruct
     public void registerEventListeners() {
         processEngine.getRuntimeService()
-                .addEventListener(queueTaskEventListener);
+                .addEventListener(queueTaskEventListener,
+                        FlowableEngineEventType.TASK_CREATED,
+                        FlowableEngineEventType.TASK_ASSIGNED,
+                        FlowableEngineEventType.TASK_COMPLETED);
         
         // TaskService doesn't have addEventListener method, only RuntimeService does
         log.info("Queue event listener registered successfully");
@@ -0,0 +1,12 @@
+package com.workflow.cmsflowable.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (queue metric rollups, cache refreshes)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,19 +1,30 @@
 package com.workflow.cmsflowable.controller;
 
 import com.workflow.cmsflowable.dto.request.CreateCaseWithAllegationsRequest;
+import com.workflow.cmsflowable.dto.response.BulkCaseIntakeResponse;
+import com.workflow.cmsflowable.dto.response.CasePageResponse;
+import com.workflow.cmsflowable.dto.response.CaseStatisticsResponse;
 import com.workflow.cmsflowable.dto.response.CaseWithAllegationsResponse;
+import com.workflow.cmsflowable.security.CerbosPermissionEvaluator;
+import com.workflow.cmsflowable.service.BulkCaseIntakeService;
+import com.workflow.cmsflowable.service.CaseStatisticsService;
 import com.workflow.cmsflowable.service.CaseWorkflowService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,11 +32,24 @@ import java.util.Map;
 @RestController
 @RequestMapping("/v1/cases")
 @Tag(name = "Case Management", description = "APIs for managing cases and workflow processes")
+@Slf4j
 public class CaseManagementController {
     
+    // Upper bound on case page reads while filling one authorized page
+    private static final int MAX_AUTHORIZED_PAGE_FETCHES = 5;
+    
     @Autowired
     private CaseWorkflowService caseWorkflowService;
     
+    @Autowired
+    private BulkCaseIntakeService bulkCaseIntakeService;
+    
+    @Autowired
+    private CaseStatisticsService caseStatisticsService;
+    
+    @Autowired
+    private CerbosPermissionEvaluator permissionEvaluator;
+    
     @GetMapping("/test")
     public ResponseEntity<String> test() {
         return ResponseEntity.ok("Case management controller is working!");
@@ -77,6 +101,22 @@ public class CaseManagementController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Bulk case intake",
+               description = "Create cases from a streamed NDJSON (one case per line) or CSV (one allegation per row) body. " +
+                             "Records are created in chunks and a result is reported for every record.")
+    @PreAuthorize("hasAnyAuthority('INTAKE_ANALYST', 'INTAKE_ANALYST_GROUP', 'INVESTIGATOR', 'INVESTIGATOR_GROUP', 'HR_SPECIALIST', 'HR_GROUP', 'ADMIN')")
+    public ResponseEntity<BulkCaseIntakeResponse> bulkCreateCases(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        BulkCaseIntakeResponse response = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+            ? bulkCaseIntakeService.importCsv(request.getInputStream())
+            : bulkCaseIntakeService.importNdjson(request.getInputStream());
+        
+        log.info("Bulk intake: {} created, {} failed in {} ms",
+            response.getCreatedCount(), response.getFailedCount(), response.getDurationMillis());
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping("/multi-department")
     @Operation(summary = "Create a multi-department case", description = "Create a complex case that requires multiple departments (HR, Legal, CSIS)")
     @PreAuthorize("hasPermission(#request, 'case', 'create')")
@@ -106,35 +146,41 @@ public class CaseManagementController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all cases", description = "Retrieve a list of all cases in the system")
+    @Operation(summary = "Get all cases", description = "Retrieve a list of all cases in the system. Cases the caller may not view are " +
+               "skipped, so a page can hold fewer than size cases; the last page is the one without an X-Next-Cursor header.")
     @PreAuthorize("hasAnyAuthority('DIRECTOR', 'IU_MANAGER', 'INTAKE_ANALYST', 'HR_SPECIALIST', 'LEGAL_COUNSEL', 'SECURITY_ANALYST', 'ADMIN')")
     public ResponseEntity<List<CaseWithAllegationsResponse>> getAllCases(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Keyset cursor from the X-Next-Cursor header of the previous page") @RequestParam(required = false) String cursor,
+            Authentication authentication) {
         try {
-            List<CaseWithAllegationsResponse> cases = caseWorkflowService.getAllCases(page, size, status);
-            return ResponseEntity.ok(cases);
+            return pageResponse(authorizedPage(page, size, status, cursor, authentication));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
     @GetMapping("/my-cases")
-    @Operation(summary = "Get my cases", description = "Get cases accessible to the current user for dashboard")
+    @Operation(summary = "Get my cases", description = "Get cases accessible to the current user for dashboard. A page can hold " +
+               "fewer than size cases; the last page is the one without an X-Next-Cursor header.")
     public ResponseEntity<List<CaseWithAllegationsResponse>> getMyCases(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         try {
             if (authentication == null) {
                 return ResponseEntity.status(401).build();
             }
             
-            // For now, return all cases - you can add user-specific filtering later
-            List<CaseWithAllegationsResponse> cases = caseWorkflowService.getAllCases(page, size, status);
-            return ResponseEntity.ok(cases);
+            return pageResponse(authorizedPage(page, size, status, cursor, authentication));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -146,6 +192,7 @@ public class CaseManagementController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         try {
             if (authentication == null) {
@@ -157,9 +204,11 @@ public class CaseManagementController {
             System.out.println("🔍 User authorities: " + authentication.getAuthorities());
             
             // Return cases without strict authorization for dashboard
-            List<CaseWithAllegationsResponse> cases = caseWorkflowService.getAllCases(page, size, status);
-            System.out.println("✅ Returning " + cases.size() + " cases for dashboard");
-            return ResponseEntity.ok(cases);
+            CasePageResponse casePage = caseWorkflowService.getCasesPage(page, size, status, cursor);
+            System.out.println("✅ Returning " + casePage.getCases().size() + " cases for dashboard");
+            return pageResponse(casePage);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             System.err.println("❌ Error fetching dashboard cases: " + e.getMessage());
             e.printStackTrace();
@@ -168,35 +217,14 @@ public class CaseManagementController {
     }
     
     @GetMapping("/dashboard-stats")
-    @Operation(summary = "Get dashboard statistics", description = "Get basic statistics for dashboard")
-    public ResponseEntity<Map<String, Object>> getDashboardStats(Authentication authentication) {
+    @Operation(summary = "Get dashboard statistics", description = "Get case counts by status and priority for the cases visible to the caller")
+    public ResponseEntity<CaseStatisticsResponse> getDashboardStats(Authentication authentication) {
         try {
             if (authentication == null) {
                 return ResponseEntity.status(401).build();
             }
             
-            System.out.println("🔍 Dashboard stats request from user: " + authentication.getName());
-            
-            // Get basic stats without strict authorization
-            List<CaseWithAllegationsResponse> allCases = caseWorkflowService.getAllCases(0, 1000, null);
-            
-            long openCases = allCases.stream()
-                .filter(c -> "OPEN".equals(c.getStatus().toString()) || "IN_PROGRESS".equals(c.getStatus().toString()))
-                .count();
-                
-            long investigations = allCases.stream()
-                .filter(c -> "IN_PROGRESS".equals(c.getStatus().toString()) || 
-                           "HIGH".equals(c.getPriority().toString()) || 
-                           "CRITICAL".equals(c.getPriority().toString()))
-                .count();
-            
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("allOpenCases", openCases);
-            stats.put("openInvestigations", investigations);
-            stats.put("totalCases", allCases.size());
-            
-            System.out.println("✅ Dashboard stats - Open: " + openCases + ", Investigations: " + investigations);
-            
+            CaseStatisticsResponse stats = caseStatisticsService.getStatistics(authentication);
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
             System.err.println("❌ Error fetching dashboard stats: " + e.getMessage());
@@ -321,4 +349,34 @@ public class CaseManagementController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * One page of cases the caller may view, each batch checked in one Cerbos call. Hidden cases
+     * are topped up from the following keyset pages, fetching only the missing count so the cursor
+     * stays exact. After MAX_AUTHORIZED_PAGE_FETCHES reads the page is returned short, cursor set.
+     */
+    private CasePageResponse authorizedPage(int page, int size, String status, String cursor, Authentication authentication) {
+        CasePageResponse casePage = caseWorkflowService.getCasesPage(page, size, status, cursor);
+        List<CaseWithAllegationsResponse> cases = new ArrayList<>(
+            permissionEvaluator.filterCases(authentication, casePage.getCases(), "view"));
+        
+        for (int fetches = 1; cases.size() < size && casePage.getNextCursor() != null
+                && fetches < MAX_AUTHORIZED_PAGE_FETCHES; fetches++) {
+            casePage = caseWorkflowService.getCasesPage(0, size - cases.size(), status, casePage.getNextCursor());
+            cases.addAll(permissionEvaluator.filterCases(authentication, casePage.getCases(), "view"));
+        }
+        
+        return CasePageResponse.builder()
+            .cases(cases)
+            .nextCursor(casePage.getNextCursor())
+            .build();
+    }
+    
+    private ResponseEntity<List<CaseWithAllegationsResponse>> pageResponse(CasePageResponse casePage) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (casePage.getNextCursor() != null) {
+            builder.header("X-Next-Cursor", casePage.getNextCursor());
+        }
+        return builder.body(casePage.getCases());
+    }
+}
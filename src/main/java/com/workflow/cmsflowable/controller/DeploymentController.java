@@ -1,10 +1,12 @@
 package com.workflow.cmsflowable.controller;
 
+import com.workflow.cmsflowable.security.CerbosDecisionCache;
 import org.flowable.engine.RepositoryService;
 import org.flowable.engine.repository.Deployment;
 import org.flowable.dmn.api.DmnRepositoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +20,9 @@ public class DeploymentController {
     
     @Autowired
     private DmnRepositoryService dmnRepositoryService;
+    
+    @Autowired
+    private CerbosDecisionCache decisionCache;
 
     @PostMapping("/all")
     public ResponseEntity<Map<String, Object>> deployAll() {
@@ -45,6 +50,21 @@ public class DeploymentController {
         }
     }
 
+    /**
+     * Called after Cerbos policies are redeployed: the PDP reloads them live, so decisions
+     * cached under the old policies are dropped instead of being served until they expire
+     */
+    @PostMapping("/policies")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> policiesDeployed() {
+        decisionCache.invalidateAll();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Cached authorization decisions cleared");
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getDeploymentStatus() {
         try {
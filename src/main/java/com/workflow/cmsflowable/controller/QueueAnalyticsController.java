@@ -1,5 +1,7 @@
 package com.workflow.cmsflowable.controller;
 
+import com.workflow.cmsflowable.dto.response.QueueMetricsTrendResponse;
+import com.workflow.cmsflowable.dto.response.QueuePerformanceMetricsResponse;
 import com.workflow.cmsflowable.service.QueueAnalyticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -8,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -54,15 +57,28 @@ public class QueueAnalyticsController {
     
     @GetMapping("/performance")
     @Operation(summary = "Get performance metrics", description = "Get performance metrics including completion rates and backlog analysis")
-    public ResponseEntity<Map<String, Object>> getPerformanceMetrics() {
+    public ResponseEntity<QueuePerformanceMetricsResponse> getPerformanceMetrics() {
         try {
-            Map<String, Object> metrics = queueAnalyticsService.getPerformanceMetrics();
+            QueuePerformanceMetricsResponse metrics = queueAnalyticsService.getPerformanceMetrics();
             return ResponseEntity.ok(metrics);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    @GetMapping("/trends")
+    @Operation(summary = "Get queue trends", description = "Get daily created/completed/escalated counts and completion times from the pre-aggregated rollups")
+    public ResponseEntity<List<QueueMetricsTrendResponse>> getQueueTrends(
+            @Parameter(description = "Queue name (all queues when omitted)") @RequestParam(required = false) String queueName,
+            @Parameter(description = "Number of days to include") @RequestParam(defaultValue = "30") int days) {
+        try {
+            List<QueueMetricsTrendResponse> trends = queueAnalyticsService.getQueueTrends(queueName, days);
+            return ResponseEntity.ok(trends);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     @GetMapping("/health")
     @Operation(summary = "Get queue health check", description = "Get health status for all queues based on task age and volume")
     public ResponseEntity<Map<String, Object>> getQueueHealthCheck() {
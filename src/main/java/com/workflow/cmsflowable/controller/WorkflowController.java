@@ -2,6 +2,7 @@ package com.workflow.cmsflowable.controller;
 
 import com.workflow.cmsflowable.dto.response.QueueTaskResponse;
 import com.workflow.cmsflowable.dto.response.WorkflowTaskResponse;
+import com.workflow.cmsflowable.service.CerbosWorkflowIntegration;
 import com.workflow.cmsflowable.service.QueueTaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +12,7 @@ import org.flowable.engine.TaskService;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.api.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -34,6 +36,9 @@ public class WorkflowController {
     @Autowired
     private QueueTaskService queueTaskService;
 
+    @Autowired
+    private CerbosWorkflowIntegration cerbosWorkflowIntegration;
+
     @PostMapping("/start/{processKey}")
     public ResponseEntity<Map<String, Object>> startProcess(
             @PathVariable String processKey,
@@ -243,20 +248,26 @@ public class WorkflowController {
     // ========== QUEUE-BASED TASK MANAGEMENT ==========
 
     @GetMapping("/queue/{queueName}/tasks")
-    @Operation(summary = "Get tasks from queue", description = "Get tasks from a specific queue, optionally filtering for unassigned tasks only")
+    @Operation(summary = "Get tasks from queue", description = "Get tasks from a specific queue, optionally filtering for unassigned tasks only. " +
+            "The first page is served from the in-memory queue index when it is warm and then omits taskData")
     public ResponseEntity<List<QueueTaskResponse>> getQueueTasks(
             @Parameter(description = "Queue name") @PathVariable String queueName,
-            @Parameter(description = "Show unassigned tasks only") @RequestParam(defaultValue = "false") boolean unassignedOnly) {
+            @Parameter(description = "Show unassigned tasks only") @RequestParam(defaultValue = "false") boolean unassignedOnly,
+            @Parameter(description = "Page number (0-based), used together with size") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size; omit to return the whole queue") @RequestParam(required = false) Integer size) {
         try {
-            List<QueueTaskResponse> tasks = queueTaskService.getTasksByQueue(queueName, unassignedOnly);
-            return ResponseEntity.ok(tasks);
+            List<QueueTaskResponse> tasks = size != null
+                    ? queueTaskService.getTasksByQueue(queueName, unassignedOnly, PageRequest.of(page, size))
+                    : queueTaskService.getTasksByQueue(queueName, unassignedOnly);
+            return ResponseEntity.ok(cerbosWorkflowIntegration.filterQueueTasksByPermissions(tasks, "view"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
     @GetMapping("/queue/{queueName}/next")
-    @Operation(summary = "Get next task from queue", description = "Get the next available (highest priority, oldest) task from a queue")
+    @Operation(summary = "Get next task from queue", description = "Get the next available (highest priority, oldest) task from a queue. " +
+            "Served from the in-memory queue index when it is warm, in which case taskData is omitted")
     public ResponseEntity<QueueTaskResponse> getNextTaskFromQueue(
             @Parameter(description = "Queue name") @PathVariable String queueName) {
         try {
@@ -359,7 +370,7 @@ public class WorkflowController {
             
             if (processInstance != null) {
                 List<QueueTaskResponse> tasks = queueTaskService.getTasksByProcessInstance(processInstance.getId());
-                return ResponseEntity.ok(tasks);
+                return ResponseEntity.ok(cerbosWorkflowIntegration.filterQueueTasksByPermissions(tasks, "view"));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -0,0 +1,33 @@
+package com.workflow.cmsflowable.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCaseIntakeResponse {
+    
+    private int totalRecords;
+    private int createdCount;
+    private int failedCount;
+    private long durationMillis;
+    private List<RecordResult> results;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecordResult {
+        
+        private long lineNumber;   // Line in the uploaded body (first line of the record for CSV)
+        private boolean created;
+        private String caseNumber; // Set when created
+        private String error;      // Set when the record was rejected or failed
+    }
+}
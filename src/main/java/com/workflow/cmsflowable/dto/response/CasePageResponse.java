@@ -0,0 +1,20 @@
+package com.workflow.cmsflowable.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CasePageResponse {
+    
+    private List<CaseWithAllegationsResponse> cases;
+    
+    // Opaque keyset cursor for the following page; null on the last page
+    private String nextCursor;
+}
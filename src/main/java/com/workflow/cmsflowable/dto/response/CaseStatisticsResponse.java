@@ -0,0 +1,26 @@
+package com.workflow.cmsflowable.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaseStatisticsResponse {
+    
+    // OPEN or IN_PROGRESS
+    private long allOpenCases;
+    
+    // IN_PROGRESS, or HIGH / CRITICAL priority
+    private long openInvestigations;
+    
+    private long totalCases;
+    
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byPriority;
+}
@@ -0,0 +1,24 @@
+package com.workflow.cmsflowable.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueMetricsTrendResponse {
+    
+    private String queueName;
+    private LocalDate metricDate;
+    private Integer tasksCreated;
+    private Integer tasksCompleted;
+    private Integer tasksEscalated;
+    private BigDecimal avgCompletionTimeHours;
+    private BigDecimal maxWaitTimeHours;
+}
@@ -0,0 +1,33 @@
+package com.workflow.cmsflowable.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueuePerformanceMetricsResponse {
+    
+    private Instant windowStart;
+    private Instant windowEnd;
+    
+    // Throughput
+    private Long completedLast24Hours;  // the last full UTC day of the window
+    private Long completedLastWeek;
+    private Double avgCompletionRatePerDay;
+    
+    // Completion time (created -> completed), in hours
+    private Double avgCompletionTimeHours;
+    private Double medianCompletionTimeHours;
+    private Double p90CompletionTimeHours;
+    private Double p95CompletionTimeHours;
+    
+    // Backlog
+    private Long totalBacklog;
+    private Double estimatedDaysToClearBacklog;  // -1 when nothing was completed in the window
+}
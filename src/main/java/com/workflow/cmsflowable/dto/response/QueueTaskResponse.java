@@ -26,6 +26,6 @@ public class QueueTaskResponse {
     private Instant createdAt;
     private Instant claimedAt;
     private Instant completedAt;
-    private Map<String, Object> taskData;
+    private Map<String, Object> taskData;  // null when served from the in-memory queue index
     private String businessKey;  // From process instance
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.workflow.cmsflowable.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Daily per-queue rollup of queue_tasks activity, maintained by QueueMetricsRollupService
+ */
+@Entity
+@Table(name = "queue_performance_metrics")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueuePerformanceMetric {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "queue_name", nullable = false)
+    private String queueName;
+    
+    @Column(name = "metric_date", nullable = false)
+    private LocalDate metricDate;
+    
+    @Column(name = "tasks_created", nullable = false)
+    private Integer tasksCreated;
+    
+    @Column(name = "tasks_completed", nullable = false)
+    private Integer tasksCompleted;
+    
+    @Column(name = "tasks_escalated", nullable = false)
+    private Integer tasksEscalated;
+    
+    @Column(name = "avg_completion_time_hours")
+    private BigDecimal avgCompletionTimeHours;
+    
+    @Column(name = "max_wait_time_hours")
+    private BigDecimal maxWaitTimeHours;
+    
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
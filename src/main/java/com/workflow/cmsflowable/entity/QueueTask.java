@@ -65,6 +65,10 @@ public class QueueTask {
     @Column(name = "task_data", columnDefinition = "jsonb")
     private Map<String, Object> taskData;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;  // Null until first persist so save() inserts instead of merging
+    
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -0,0 +1,92 @@
+package com.workflow.cmsflowable.model;
+
+import com.workflow.cmsflowable.entity.WorkflowMetadata;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable queue routing compiled from one process's {@link WorkflowMetadata}:
+ * task definition key to queue, candidate group to queue (and back), and the default queue.
+ */
+public final class QueueRoutingTable {
+    
+    private static final String DEFAULT_GROUP = "default";
+    private static final String DEFAULT_QUEUE = "default-queue";
+    
+    private final Map<String, String> taskQueues;
+    private final Map<String, String> candidateGroupQueues;
+    private final Map<String, Set<String>> queueCandidateGroups;
+    private final String defaultQueue;
+    
+    private QueueRoutingTable(Map<String, String> taskQueues, Map<String, String> candidateGroupQueues) {
+        this.taskQueues = Map.copyOf(taskQueues);
+        this.candidateGroupQueues = Map.copyOf(candidateGroupQueues);
+        this.defaultQueue = candidateGroupQueues.getOrDefault(DEFAULT_GROUP, DEFAULT_QUEUE);
+        
+        Map<String, Set<String>> queueCandidateGroups = new HashMap<>();
+        candidateGroupQueues.forEach((group, queue) -> {
+            if (!DEFAULT_GROUP.equals(group)) {
+                queueCandidateGroups.computeIfAbsent(queue, q -> new HashSet<>()).add(group);
+            }
+        });
+        this.queueCandidateGroups = queueCandidateGroups.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> Set.copyOf(entry.getValue())));
+    }
+    
+    public static QueueRoutingTable from(WorkflowMetadata metadata) {
+        Map<String, String> taskQueues = new HashMap<>();
+        if (metadata.getTaskQueueMappings() != null) {
+            for (TaskQueueMapping mapping : metadata.getTaskQueueMappings()) {
+                // First mapping wins, matching the previous linear scan
+                if (mapping.getTaskId() != null && mapping.getQueue() != null) {
+                    taskQueues.putIfAbsent(mapping.getTaskId(), mapping.getQueue());
+                }
+            }
+        }
+        
+        Map<String, String> candidateGroupQueues = new HashMap<>();
+        if (metadata.getCandidateGroupMappings() != null) {
+            metadata.getCandidateGroupMappings().forEach((group, queue) -> {
+                if (group != null && queue != null) {
+                    candidateGroupQueues.put(group, queue);
+                }
+            });
+        }
+        
+        return new QueueRoutingTable(taskQueues, candidateGroupQueues);
+    }
+    
+    /**
+     * Queue mapped to the task definition key, or null if the task is not in the deployed model
+     */
+    public String queueForTask(String taskDefinitionKey) {
+        return taskDefinitionKey != null ? taskQueues.get(taskDefinitionKey) : null;
+    }
+    
+    /**
+     * Queue for the first mapped candidate group, falling back to the default queue
+     */
+    public String queueForCandidateGroups(Collection<String> candidateGroups) {
+        if (candidateGroups != null) {
+            for (String group : candidateGroups) {
+                String queue = candidateGroupQueues.get(group);
+                if (queue != null) {
+                    return queue;
+                }
+            }
+        }
+        return defaultQueue;
+    }
+    
+    /**
+     * Candidate groups routed to the queue (the "default" mapping is not a group)
+     */
+    public Set<String> candidateGroupsForQueue(String queueName) {
+        return queueName != null ? queueCandidateGroups.getOrDefault(queueName, Set.of()) : Set.of();
+    }
+}
@@ -0,0 +1,43 @@
+package com.workflow.cmsflowable.model;
+
+import com.workflow.cmsflowable.entity.QueueTask;
+import com.workflow.cmsflowable.enums.TaskStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Published whenever a queue task is inserted, claimed, unclaimed or completed.
+ * Carries a snapshot of the scalar task fields (never the jsonb task data).
+ */
+@Value
+@Builder
+public class QueueTaskLifecycleEvent {
+    
+    String taskId;
+    String processInstanceId;
+    String processDefinitionKey;
+    String taskDefinitionKey;
+    String taskName;
+    String queueName;
+    String assignee;
+    TaskStatus status;
+    Integer priority;
+    Instant createdAt;
+    
+    public static QueueTaskLifecycleEvent of(QueueTask queueTask) {
+        return QueueTaskLifecycleEvent.builder()
+                .taskId(queueTask.getTaskId())
+                .processInstanceId(queueTask.getProcessInstanceId())
+                .processDefinitionKey(queueTask.getProcessDefinitionKey())
+                .taskDefinitionKey(queueTask.getTaskDefinitionKey())
+                .taskName(queueTask.getTaskName())
+                .queueName(queueTask.getQueueName())
+                .assignee(queueTask.getAssignee())
+                .status(queueTask.getStatus())
+                .priority(queueTask.getPriority())
+                .createdAt(queueTask.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.workflow.cmsflowable.model;
+
+import lombok.Value;
+
+/**
+ * Published when a user is created or their roles or credentials change, so cached
+ * principals for that user are dropped.
+ */
+@Value(staticConstructor = "of")
+public class UserChangedEvent {
+    
+    Long userId;
+    String username;
+}
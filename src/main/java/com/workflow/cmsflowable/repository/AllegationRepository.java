@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,6 +15,8 @@ public interface AllegationRepository extends JpaRepository<Allegation, String>
     
     List<Allegation> findByCaseId(String caseId);
     
+    List<Allegation> findByCaseIdIn(Collection<String> caseIds);
+    
     List<Allegation> findByAllegationType(String allegationType);
     
     List<Allegation> findBySeverity(Severity severity);
@@ -1,11 +1,15 @@
 package com.workflow.cmsflowable.repository;
 
 import com.workflow.cmsflowable.entity.Case;
+import com.workflow.cmsflowable.entity.CaseStatus;
+import com.workflow.cmsflowable.repository.projection.CaseStatusPriorityCount;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,4 +29,31 @@ public interface CaseRepository extends JpaRepository<Case, String> {
     
     @Query("SELECT c FROM Case c WHERE c.assignedTo.userId = :userId OR c.createdBy.userId = :userId")
     List<Case> findCasesForUser(@Param("userId") Long userId);
-}
\ No newline at end of file
+    
+    // Keyset pagination, newest first; status is optional
+    @Query("SELECT c FROM Case c WHERE (:status IS NULL OR c.status = :status) " +
+           "ORDER BY c.createdAt DESC, c.caseId DESC")
+    List<Case> findCasesPage(@Param("status") CaseStatus status, Pageable pageable);
+    
+    @Query("SELECT c FROM Case c WHERE (:status IS NULL OR c.status = :status) " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.caseId < :caseId)) " +
+           "ORDER BY c.createdAt DESC, c.caseId DESC")
+    List<Case> findCasesPageAfter(@Param("status") CaseStatus status,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("caseId") String caseId,
+                                  Pageable pageable);
+    
+    @Query(value = "SELECT status AS status, priority AS priority, COUNT(*) AS caseCount " +
+                   "FROM {h-schema}cases GROUP BY status, priority",
+           nativeQuery = true)
+    List<CaseStatusPriorityCount> countByStatusAndPriority();
+    
+    // Cases the user is involved in through any of the case role columns
+    @Query(value = "SELECT status AS status, priority AS priority, COUNT(*) AS caseCount " +
+                   "FROM {h-schema}cases " +
+                   "WHERE assigned_to_user_id = :userId OR created_by_user_id = :userId " +
+                   "OR intake_analyst_id = :userId OR investigation_manager_id = :userId OR investigator_id = :userId " +
+                   "GROUP BY status, priority",
+           nativeQuery = true)
+    List<CaseStatusPriorityCount> countByStatusAndPriorityForUser(@Param("userId") Long userId);
+}
@@ -0,0 +1,71 @@
+package com.workflow.cmsflowable.repository;
+
+import com.workflow.cmsflowable.entity.QueuePerformanceMetric;
+import com.workflow.cmsflowable.repository.projection.RollupCompletionTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface QueuePerformanceMetricRepository extends JpaRepository<QueuePerformanceMetric, Long> {
+    
+    // Trend queries
+    List<QueuePerformanceMetric> findByMetricDateGreaterThanEqualOrderByMetricDateAscQueueNameAsc(LocalDate fromDate);
+    
+    List<QueuePerformanceMetric> findByQueueNameAndMetricDateGreaterThanEqualOrderByMetricDateAsc(String queueName, LocalDate fromDate);
+    
+    // Completed totals over [fromDate, toDate) across all queues; the average is weighted by each bucket's completions
+    @Query(value = "SELECT COALESCE(SUM(m.tasks_completed), 0) AS completedInWindow, " +
+            "COALESCE(SUM(m.tasks_completed) FILTER (WHERE m.metric_date >= :lastDay), 0) AS completedLastDay, " +
+            "CAST(SUM(m.avg_completion_time_hours * m.tasks_completed) " +
+            "     / NULLIF(SUM(m.tasks_completed) FILTER (WHERE m.avg_completion_time_hours IS NOT NULL), 0) AS DOUBLE PRECISION) AS avgCompletionTimeHours " +
+            "FROM {h-schema}queue_performance_metrics m " +
+            "WHERE m.metric_date >= :fromDate AND m.metric_date < :toDate", nativeQuery = true)
+    RollupCompletionTotals sumCompletions(@Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate,
+                                          @Param("lastDay") LocalDate lastDay);
+    
+    /**
+     * Recompute the daily buckets from fromDate (UTC) onwards and upsert them.
+     * Created, completed and escalated counts are each attributed to the day the event happened.
+     */
+    @Modifying
+    @Query(value = "WITH created AS (" +
+            "    SELECT queue_name, CAST(created_at AS DATE) AS metric_date, COUNT(*) AS tasks " +
+            "    FROM {h-schema}queue_tasks WHERE created_at >= :fromDate GROUP BY 1, 2), " +
+            "completed AS (" +
+            "    SELECT queue_name, CAST(completed_at AS DATE) AS metric_date, COUNT(*) AS tasks, " +
+            "           AVG(EXTRACT(EPOCH FROM (completed_at - created_at)) / 3600.0) AS avg_hours, " +
+            "           MAX(EXTRACT(EPOCH FROM (COALESCE(claimed_at, completed_at) - created_at)) / 3600.0) AS max_wait_hours " +
+            "    FROM {h-schema}queue_tasks WHERE status = 'COMPLETED' AND completed_at >= :fromDate GROUP BY 1, 2), " +
+            "escalated AS (" +
+            "    SELECT queue_name, CAST(escalated_at AS DATE) AS metric_date, COUNT(*) AS tasks " +
+            "    FROM {h-schema}queue_tasks WHERE escalated_at >= :fromDate GROUP BY 1, 2), " +
+            "buckets AS (" +
+            "    SELECT queue_name, metric_date FROM created " +
+            "    UNION SELECT queue_name, metric_date FROM completed " +
+            "    UNION SELECT queue_name, metric_date FROM escalated) " +
+            "INSERT INTO {h-schema}queue_performance_metrics " +
+            "    (queue_name, metric_date, tasks_created, tasks_completed, tasks_escalated, " +
+            "     avg_completion_time_hours, max_wait_time_hours, created_at, updated_at) " +
+            "SELECT b.queue_name, b.metric_date, COALESCE(cr.tasks, 0), COALESCE(co.tasks, 0), COALESCE(es.tasks, 0), " +
+            "       ROUND(CAST(co.avg_hours AS NUMERIC), 2), ROUND(CAST(co.max_wait_hours AS NUMERIC), 2), :now, :now " +
+            "FROM buckets b " +
+            "LEFT JOIN created cr ON cr.queue_name = b.queue_name AND cr.metric_date = b.metric_date " +
+            "LEFT JOIN completed co ON co.queue_name = b.queue_name AND co.metric_date = b.metric_date " +
+            "LEFT JOIN escalated es ON es.queue_name = b.queue_name AND es.metric_date = b.metric_date " +
+            "ON CONFLICT (queue_name, metric_date) DO UPDATE SET " +
+            "    tasks_created = EXCLUDED.tasks_created, " +
+            "    tasks_completed = EXCLUDED.tasks_completed, " +
+            "    tasks_escalated = EXCLUDED.tasks_escalated, " +
+            "    avg_completion_time_hours = EXCLUDED.avg_completion_time_hours, " +
+            "    max_wait_time_hours = EXCLUDED.max_wait_time_hours, " +
+            "    updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int rollupFrom(@Param("fromDate") LocalDate fromDate, @Param("now") Instant now);
+}
@@ -2,6 +2,8 @@ package com.workflow.cmsflowable.repository;
 
 import com.workflow.cmsflowable.entity.QueueTask;
 import com.workflow.cmsflowable.enums.TaskStatus;
+import com.workflow.cmsflowable.repository.projection.CompletionTimePercentiles;
+import com.workflow.cmsflowable.repository.projection.QueueTaskSummary;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -65,6 +68,69 @@ public interface QueueTaskRepository extends JpaRepository<QueueTask, String> {
     @Query("SELECT qt.status, COUNT(qt) FROM QueueTask qt GROUP BY qt.status")
     List<Object[]> countTasksByStatus();
     
+    // Scalar projection used to warm the in-memory queue index (no jsonb payload)
+    @Query("SELECT qt.taskId, qt.processInstanceId, qt.processDefinitionKey, qt.taskDefinitionKey, qt.taskName, " +
+           "qt.queueName, qt.assignee, qt.priority, qt.createdAt FROM QueueTask qt WHERE qt.status = :status")
+    List<Object[]> findIndexRowsByStatus(@Param("status") TaskStatus status);
+    
+    // Atomic claim operations - single statement, safe under concurrent claimers
+    @Query(value = "UPDATE {h-schema}queue_tasks qt " +
+            "SET assignee = :assignee, status = 'CLAIMED', claimed_at = :claimedAt, version = qt.version + 1 " +
+            "WHERE qt.task_id = (" +
+            "    SELECT c.task_id FROM {h-schema}queue_tasks c " +
+            "    WHERE c.queue_name IN (:queueNames) AND c.status = 'OPEN' AND c.assignee IS NULL " +
+            "    ORDER BY c.priority DESC, c.created_at ASC " +
+            "    LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING qt.*", nativeQuery = true)
+    Optional<QueueTask> claimNextAvailableTask(@Param("queueNames") Collection<String> queueNames,
+                                               @Param("assignee") String assignee,
+                                               @Param("claimedAt") Instant claimedAt);
+    
+    @Query(value = "UPDATE {h-schema}queue_tasks qt " +
+            "SET assignee = :assignee, status = 'CLAIMED', claimed_at = :claimedAt, version = qt.version + 1 " +
+            "WHERE qt.task_id = :taskId AND qt.status = 'OPEN' AND (qt.assignee IS NULL OR qt.assignee = :assignee) " +
+            "RETURNING qt.*", nativeQuery = true)
+    Optional<QueueTask> claimTaskIfAvailable(@Param("taskId") String taskId,
+                                             @Param("assignee") String assignee,
+                                             @Param("claimedAt") Instant claimedAt);
+    
+    // Set-based dashboard aggregation: status x queue x open-task age bucket in one pass
+    String QUEUE_SUMMARY_SELECT = "SELECT qt.queue_name AS queueName, " +
+            "COUNT(*) AS totalTasks, " +
+            "COUNT(*) FILTER (WHERE qt.status = 'OPEN') AS openTasks, " +
+            "COUNT(*) FILTER (WHERE qt.status = 'CLAIMED') AS claimedTasks, " +
+            "COUNT(*) FILTER (WHERE qt.status = 'COMPLETED') AS completedTasks, " +
+            "COUNT(*) FILTER (WHERE qt.status = 'OPEN' AND qt.created_at < :oneHourAgo) AS openOlderThan1Hour, " +
+            "COUNT(*) FILTER (WHERE qt.status = 'OPEN' AND qt.created_at < :fourHoursAgo) AS openOlderThan4Hours, " +
+            "COUNT(*) FILTER (WHERE qt.status = 'OPEN' AND qt.created_at < :oneDayAgo) AS openOlderThan1Day, " +
+            "COUNT(*) FILTER (WHERE qt.status = 'OPEN' AND qt.created_at < :oneWeekAgo) AS openOlderThan1Week " +
+            "FROM {h-schema}queue_tasks qt ";
+    
+    @Query(value = QUEUE_SUMMARY_SELECT + "GROUP BY qt.queue_name ORDER BY qt.queue_name", nativeQuery = true)
+    List<QueueTaskSummary> summarizeQueues(@Param("oneHourAgo") Instant oneHourAgo,
+                                           @Param("fourHoursAgo") Instant fourHoursAgo,
+                                           @Param("oneDayAgo") Instant oneDayAgo,
+                                           @Param("oneWeekAgo") Instant oneWeekAgo);
+    
+    @Query(value = QUEUE_SUMMARY_SELECT + "WHERE qt.queue_name = :queueName GROUP BY qt.queue_name", nativeQuery = true)
+    Optional<QueueTaskSummary> summarizeQueue(@Param("queueName") String queueName,
+                                              @Param("oneHourAgo") Instant oneHourAgo,
+                                              @Param("fourHoursAgo") Instant fourHoursAgo,
+                                              @Param("oneDayAgo") Instant oneDayAgo,
+                                              @Param("oneWeekAgo") Instant oneWeekAgo);
+    
+    // Completion-time percentiles cannot be derived from the daily rollups; range-bounded by idx_queue_tasks_completed_at
+    @Query(value = "SELECT " +
+            "percentile_cont(0.5) WITHIN GROUP (ORDER BY EXTRACT(EPOCH FROM (qt.completed_at - qt.created_at)) / 3600.0) AS medianCompletionTimeHours, " +
+            "percentile_cont(0.9) WITHIN GROUP (ORDER BY EXTRACT(EPOCH FROM (qt.completed_at - qt.created_at)) / 3600.0) AS p90CompletionTimeHours, " +
+            "percentile_cont(0.95) WITHIN GROUP (ORDER BY EXTRACT(EPOCH FROM (qt.completed_at - qt.created_at)) / 3600.0) AS p95CompletionTimeHours " +
+            "FROM {h-schema}queue_tasks qt " +
+            "WHERE qt.status = 'COMPLETED' AND qt.completed_at >= :windowStart AND qt.completed_at < :windowEnd", nativeQuery = true)
+    CompletionTimePercentiles getCompletionTimePercentiles(@Param("windowStart") Instant windowStart,
+                                                           @Param("windowEnd") Instant windowEnd);
+    
+    long countByStatusIn(Collection<TaskStatus> statuses);
+    
     // Task lookup by Flowable task ID
     Optional<QueueTask> findByTaskId(String taskId);
     
@@ -0,0 +1,13 @@
+package com.workflow.cmsflowable.repository.projection;
+
+/**
+ * Number of cases for one (status, priority) pair
+ */
+public interface CaseStatusPriorityCount {
+    
+    String getStatus();
+    
+    String getPriority();
+    
+    Long getCaseCount();
+}
@@ -0,0 +1,13 @@
+package com.workflow.cmsflowable.repository.projection;
+
+/**
+ * Completion-time distribution (hours) for tasks completed within a time window
+ */
+public interface CompletionTimePercentiles {
+    
+    Double getMedianCompletionTimeHours();
+    
+    Double getP90CompletionTimeHours();
+    
+    Double getP95CompletionTimeHours();
+}
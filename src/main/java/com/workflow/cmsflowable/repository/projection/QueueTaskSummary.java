@@ -0,0 +1,25 @@
+package com.workflow.cmsflowable.repository.projection;
+
+/**
+ * Per-queue task counts by status and open-task age bucket, produced by a single grouped query
+ */
+public interface QueueTaskSummary {
+    
+    String getQueueName();
+    
+    Long getTotalTasks();
+    
+    Long getOpenTasks();
+    
+    Long getClaimedTasks();
+    
+    Long getCompletedTasks();
+    
+    Long getOpenOlderThan1Hour();
+    
+    Long getOpenOlderThan4Hours();
+    
+    Long getOpenOlderThan1Day();
+    
+    Long getOpenOlderThan1Week();
+}
@@ -0,0 +1,13 @@
+package com.workflow.cmsflowable.repository.projection;
+
+/**
+ * Completed counts and completion-weighted average completion time (hours) summed over daily rollup buckets
+ */
+public interface RollupCompletionTotals {
+    
+    Long getCompletedInWindow();
+    
+    Long getCompletedLastDay();
+    
+    Double getAvgCompletionTimeHours();
+}
@@ -0,0 +1,187 @@
+package com.workflow.cmsflowable.security;
+
+import dev.cerbos.sdk.CerbosBlockingClient;
+import dev.cerbos.sdk.CheckResourcesResult;
+import dev.cerbos.sdk.builders.AttributeValue;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.ResourceAction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Authorizes many resources x actions for one principal with Cerbos CheckResources,
+ * so filtering a list costs one round-trip per {@code cerbos.batch.max-resources}
+ * resources instead of one per resource.
+ */
+@Component
+@Slf4j
+public class CerbosBatchAuthorizer {
+    
+    @Autowired(required = false)
+    private CerbosBlockingClient cerbosClient;
+    
+    @Autowired
+    private CerbosDecisionCache decisionCache;
+    
+    @Autowired
+    private CerbosCallGuard cerbosCallGuard;
+    
+    // Cerbos rejects requests above its engine.maxResourcesPerRequest (50 by default)
+    @Value("${cerbos.batch.max-resources:50}")
+    private int maxResourcesPerRequest;
+    
+    public boolean isAvailable() {
+        return cerbosClient != null;
+    }
+    
+    /**
+     * Allowed actions per resource id. Decisions found in {@link CerbosDecisionCache} are
+     * reused; the remaining resources are sent in chunks of at most
+     * {@code cerbos.batch.max-resources}. Ids must be unique within one call.
+     *
+     * @throws IllegalStateException if no Cerbos client is configured
+     */
+    public Map<String, Set<String>> checkResources(Authentication authentication, String kind,
+                                                   Map<String, Map<String, Object>> resourceAttributes,
+                                                   Collection<String> actions) {
+        if (cerbosClient == null) {
+            throw new IllegalStateException("Cerbos client not available");
+        }
+        
+        List<String> roles = extractRoles(authentication);
+        String[] actionArray = actions.toArray(new String[0]);
+        Map<String, Set<String>> allowed = new HashMap<>();
+        
+        // Resources with a cached decision for every action skip the PDP
+        List<String> resourceIds = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> resource : resourceAttributes.entrySet()) {
+            Set<String> permitted = new HashSet<>();
+            boolean complete = true;
+            for (String action : actionArray) {
+                Optional<Boolean> cached = decisionCache.lookup(decisionCache.key(authentication.getName(), roles,
+                    kind, resource.getKey(), resource.getValue(), action));
+                if (cached.isEmpty()) {
+                    complete = false;
+                    break;
+                }
+                if (cached.get()) {
+                    permitted.add(action);
+                }
+            }
+            if (complete) {
+                allowed.put(resource.getKey(), permitted);
+            } else {
+                resourceIds.add(resource.getKey());
+            }
+        }
+        
+        Principal principal = resourceIds.isEmpty() ? null : buildPrincipal(authentication, roles);
+        for (int from = 0; from < resourceIds.size(); from += maxResourcesPerRequest) {
+            List<String> chunk = resourceIds.subList(from, Math.min(from + maxResourcesPerRequest, resourceIds.size()));
+            
+            ResourceAction[] resources = chunk.stream()
+                .map(id -> buildResourceAction(kind, id, resourceAttributes.get(id), actionArray))
+                .toArray(ResourceAction[]::new);
+            
+            CheckResourcesResult result = cerbosCallGuard.checkResources(principal, resources);
+            
+            for (String id : chunk) {
+                result.find(id).ifPresent(check -> {
+                    Set<String> permitted = new HashSet<>();
+                    for (String action : actionArray) {
+                        boolean actionAllowed = check.isAllowed(action);
+                        decisionCache.put(decisionCache.key(authentication.getName(), roles,
+                            kind, id, resourceAttributes.get(id), action), actionAllowed);
+                        if (actionAllowed) {
+                            permitted.add(action);
+                        }
+                    }
+                    allowed.put(id, permitted);
+                });
+            }
+        }
+        
+        log.debug("Cerbos batch check - User: {}, Kind: {}, Resources: {}, Uncached: {}, Actions: {}, Requests: {}",
+            authentication.getName(), kind, resourceAttributes.size(), resourceIds.size(), actions,
+            (resourceIds.size() + maxResourcesPerRequest - 1) / maxResourcesPerRequest);
+        
+        return allowed;
+    }
+    
+    /**
+     * Items on which the user may perform the action, in their original order. Without a
+     * Cerbos client, or when the batch check fails, each item is decided by the fallback.
+     */
+    public <T> List<T> filter(Authentication authentication, String kind, String action, List<T> items,
+                              Function<T, String> resourceId,
+                              Function<T, Map<String, Object>> resourceAttributes,
+                              Predicate<T> fallback) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        if (cerbosClient == null) {
+            log.debug("Cerbos client not available, using fallback logic for {} {} resources", items.size(), kind);
+            return items.stream().filter(fallback).collect(Collectors.toList());
+        }
+        
+        try {
+            Map<String, Map<String, Object>> attributesById = new LinkedHashMap<>();
+            for (T item : items) {
+                attributesById.putIfAbsent(resourceId.apply(item), resourceAttributes.apply(item));
+            }
+            
+            Map<String, Set<String>> allowed = checkResources(authentication, kind, attributesById, List.of(action));
+            return items.stream()
+                .filter(item -> allowed.getOrDefault(resourceId.apply(item), Set.of()).contains(action))
+                .collect(Collectors.toList());
+            
+        } catch (Exception e) {
+            log.error("Error in Cerbos batch check for user {} on {} {} resources: {}",
+                authentication.getName(), items.size(), kind, e.getMessage());
+            return items.stream().filter(fallback).collect(Collectors.toList());
+        }
+    }
+    
+    private List<String> extractRoles(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .map(role -> role.startsWith("ROLE_") ? role.substring(5) : role)
+            .collect(Collectors.toList());
+    }
+    
+    private Principal buildPrincipal(Authentication authentication, List<String> roles) {
+        Principal principal = Principal.newInstance(authentication.getName())
+            .withRoles(roles.toArray(new String[0]));
+        
+        if (authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            principal = principal.withAttribute("email", AttributeValue.stringValue(userPrincipal.getEmail()))
+                .withAttribute("userId", AttributeValue.stringValue(String.valueOf(userPrincipal.getUserId())));
+        }
+        return principal;
+    }
+    
+    private ResourceAction buildResourceAction(String kind, String id, Map<String, Object> attributes, String[] actions) {
+        ResourceAction resource = ResourceAction.newInstance(kind, id).withActions(actions);
+        if (attributes != null) {
+            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                if (entry.getValue() instanceof Collection<?> values) {
+                    resource = resource.withAttribute(entry.getKey(), AttributeValue.listValue(values.stream()
+                        .map(value -> AttributeValue.stringValue(String.valueOf(value)))
+                        .collect(Collectors.toList())));
+                } else if (entry.getValue() != null) {
+                    resource = resource.withAttribute(entry.getKey(), AttributeValue.stringValue(entry.getValue().toString()));
+                }
+            }
+        }
+        return resource;
+    }
+}
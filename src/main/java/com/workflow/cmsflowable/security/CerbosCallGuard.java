@@ -0,0 +1,246 @@
+package com.workflow.cmsflowable.security;
+
+import dev.cerbos.sdk.CerbosAsyncClient;
+import dev.cerbos.sdk.CerbosBlockingClient;
+import dev.cerbos.sdk.CheckResourcesResult;
+import dev.cerbos.sdk.CheckResult;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+import dev.cerbos.sdk.builders.ResourceAction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Calls the Cerbos PDP with a per-call deadline, a bulkhead on concurrent calls and a
+ * circuit breaker. Single checks use the async client; batch checks run the blocking
+ * client on a small dedicated pool. Any rejected, failed or timed-out call throws
+ * {@link CerbosUnavailableException}, which callers already answer with their local
+ * fallback rules, so a slow PDP costs a request at most the deadline.
+ *
+ * <p>The breaker looks at the last {@code window-size} calls; when at least
+ * {@code minimum-calls} were made and {@code failure-rate-threshold} percent of them failed
+ * or were slower than {@code slow-call-ms}, it opens for {@code open-seconds}, then lets a
+ * single trial call through to decide whether to close again.
+ */
+@Component
+@Slf4j
+public class CerbosCallGuard {
+    
+    /**
+     * The PDP was not called or did not answer in time
+     */
+    public static class CerbosUnavailableException extends RuntimeException {
+        public CerbosUnavailableException(String message) {
+            super(message);
+        }
+        
+        public CerbosUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+    
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+    
+    @Autowired(required = false)
+    private CerbosAsyncClient asyncClient;
+    
+    @Autowired(required = false)
+    private CerbosBlockingClient blockingClient;
+    
+    @Value("${cerbos.client.deadline-ms:300}")
+    private long deadlineMillis;
+    
+    @Value("${cerbos.client.max-concurrent-calls:32}")
+    private int maxConcurrentCalls;
+    
+    @Value("${cerbos.circuit-breaker.window-size:20}")
+    private int windowSize;
+    
+    @Value("${cerbos.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+    
+    @Value("${cerbos.circuit-breaker.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+    
+    @Value("${cerbos.circuit-breaker.slow-call-ms:200}")
+    private long slowCallMillis;
+    
+    @Value("${cerbos.circuit-breaker.open-seconds:30}")
+    private long openSeconds;
+    
+    private Semaphore bulkhead;
+    private ExecutorService blockingCallExecutor;
+    
+    // Outcomes of the last windowSize calls as a ring buffer; true = failed or slow
+    private boolean[] window;
+    private int windowPosition;
+    private int recordedCalls;
+    private int failedCalls;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    
+    @PostConstruct
+    void initialize() {
+        bulkhead = new Semaphore(maxConcurrentCalls);
+        window = new boolean[windowSize];
+        AtomicInteger threadNumber = new AtomicInteger();
+        blockingCallExecutor = Executors.newFixedThreadPool(maxConcurrentCalls, runnable -> {
+            Thread thread = new Thread(runnable, "cerbos-call-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        blockingCallExecutor.shutdownNow();
+    }
+    
+    /**
+     * Single resource check through the async client (or the blocking client off-thread)
+     */
+    public CheckResult check(Principal principal, Resource resource, String action) {
+        if (asyncClient != null) {
+            return call("check", () -> asyncClient.check(principal, resource, action));
+        }
+        requireBlockingClient();
+        return call("check", () -> CompletableFuture.supplyAsync(
+                () -> blockingClient.check(principal, resource, action), blockingCallExecutor));
+    }
+    
+    /**
+     * CheckResources for one chunk of resources
+     */
+    public CheckResourcesResult checkResources(Principal principal, ResourceAction[] resources) {
+        requireBlockingClient();
+        return call("checkResources", () -> CompletableFuture.supplyAsync(
+                () -> blockingClient.batch(principal).addResources(resources).check(), blockingCallExecutor));
+    }
+    
+    private <T> T call(String operation, Supplier<CompletableFuture<T>> invocation) {
+        if (!permitCall()) {
+            throw new CerbosUnavailableException("Cerbos circuit breaker is open");
+        }
+        if (!bulkhead.tryAcquire()) {
+            releaseTrial();
+            throw new CerbosUnavailableException("Too many concurrent Cerbos calls");
+        }
+        
+        long started = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = invocation.get();
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            recordOutcome(true);
+            throw new CerbosUnavailableException("Cerbos " + operation + " failed", e);
+        }
+        // The permit is held until the PDP actually answers, so timed-out calls still count
+        future.whenComplete((result, error) -> bulkhead.release());
+        
+        try {
+            T result = future.get(deadlineMillis, TimeUnit.MILLISECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            recordOutcome(elapsedMillis > slowCallMillis);
+            return result;
+        } catch (TimeoutException e) {
+            recordOutcome(true);
+            throw new CerbosUnavailableException("Cerbos " + operation + " exceeded " + deadlineMillis + "ms deadline");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recordOutcome(true);
+            throw new CerbosUnavailableException("Interrupted waiting for Cerbos " + operation, e);
+        } catch (ExecutionException e) {
+            recordOutcome(true);
+            throw new CerbosUnavailableException("Cerbos " + operation + " failed", e.getCause());
+        }
+    }
+    
+    private void requireBlockingClient() {
+        if (blockingClient == null) {
+            throw new CerbosUnavailableException("Cerbos client not available");
+        }
+    }
+    
+    private synchronized boolean permitCall() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= TimeUnit.SECONDS.toNanos(openSeconds)) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+            log.info("Cerbos circuit breaker half-open, allowing a trial call");
+        }
+        if (state == State.OPEN) {
+            return false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+    
+    private synchronized void releaseTrial() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+    
+    private synchronized void recordOutcome(boolean failed) {
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else {
+                state = State.CLOSED;
+                resetWindow();
+                log.info("Cerbos circuit breaker closed");
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        
+        if (recordedCalls == windowSize) {
+            if (window[windowPosition]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowPosition] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        windowPosition = (windowPosition + 1) % windowSize;
+        
+        if (recordedCalls >= minimumCalls && failedCalls * 100 >= failureRateThreshold * recordedCalls) {
+            open();
+        }
+    }
+    
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        trialInFlight = false;
+        log.warn("Cerbos circuit breaker opened for {}s ({} of the last {} calls failed or were slow); using fallback rules",
+                openSeconds, failedCalls, recordedCalls);
+        resetWindow();
+    }
+    
+    private void resetWindow() {
+        window = new boolean[windowSize];
+        windowPosition = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+    }
+}
@@ -0,0 +1,130 @@
+package com.workflow.cmsflowable.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Short-lived, size-bounded cache of Cerbos allow/deny decisions. A decision is keyed by
+ * policy version, principal, sorted roles, resource kind and id, resource attributes and
+ * action, so any change of role or resource state is a different key; entries expire after
+ * {@code cerbos.decision-cache.ttl-seconds}. Hits and misses are counted in
+ * {@code cms.cerbos.decision.cache}.
+ */
+@Component
+@Slf4j
+public class CerbosDecisionCache {
+    
+    /**
+     * Identity of one authorization decision; roles and attributes are compared in full, not by hash alone
+     */
+    public record DecisionKey(String policyVersion, String principalId, List<String> roles,
+                              String kind, String resourceId, Map<String, String> attributes, String action) {}
+    
+    private record CachedDecision(boolean allowed, long expiresAtNanos) {}
+    
+    @Value("${cerbos.decision-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cerbos.decision-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+    
+    @Value("${cerbos.decision-cache.max-entries:10000}")
+    private int maxEntries;
+    
+    @Value("${cerbos.policy-version:default}")
+    private String policyVersion;
+    
+    private final Counter hits;
+    private final Counter misses;
+    
+    private final Map<DecisionKey, CachedDecision> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<DecisionKey, CachedDecision> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+    
+    public CerbosDecisionCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("cms.cerbos.decision.cache")
+                .tag("result", "hit")
+                .description("Cerbos decisions served from the local cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cms.cerbos.decision.cache")
+                .tag("result", "miss")
+                .description("Cerbos decisions that needed a call to the PDP")
+                .register(meterRegistry);
+        Gauge.builder("cms.cerbos.decision.cache.size", cache, Map::size)
+                .description("Cached Cerbos decisions")
+                .register(meterRegistry);
+    }
+    
+    public DecisionKey key(String principalId, Collection<String> roles, String kind, String resourceId,
+                           Map<String, ?> attributes, String action) {
+        Map<String, String> attributeValues = new TreeMap<>();
+        if (attributes != null) {
+            attributes.forEach((name, value) -> {
+                if (value != null) {
+                    attributeValues.put(name, value.toString());
+                }
+            });
+        }
+        return new DecisionKey(policyVersion, principalId, roles.stream().sorted().distinct().toList(),
+                kind, resourceId, Collections.unmodifiableMap(attributeValues), action);
+    }
+    
+    /**
+     * Cached decision for the key, calling the PDP on a miss. Exceptions from the check
+     * propagate and nothing is cached.
+     */
+    public boolean isAllowed(DecisionKey key, BooleanSupplier check) {
+        Optional<Boolean> cached = lookup(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        boolean allowed = check.getAsBoolean();
+        put(key, allowed);
+        return allowed;
+    }
+    
+    /**
+     * Unexpired decision for the key; counts a hit or a miss
+     */
+    public Optional<Boolean> lookup(DecisionKey key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedDecision cached = cache.get(key);
+        if (cached != null && cached.expiresAtNanos() - System.nanoTime() > 0) {
+            hits.increment();
+            return Optional.of(cached.allowed());
+        }
+        if (cached != null) {
+            cache.remove(key);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+    
+    public void put(DecisionKey key, boolean allowed) {
+        if (enabled) {
+            cache.put(key, new CachedDecision(allowed, System.nanoTime() + ttlSeconds * 1_000_000_000L));
+        }
+    }
+    
+    /**
+     * Forget every cached decision, e.g. after policies were redeployed to the PDP
+     * (called through POST /v1/deploy/policies; applies to this instance only)
+     */
+    public void invalidateAll() {
+        cache.clear();
+        log.info("Cerbos decision cache invalidated");
+    }
+}
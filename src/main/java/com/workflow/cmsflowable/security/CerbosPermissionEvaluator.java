@@ -1,6 +1,7 @@
 package com.workflow.cmsflowable.security;
 
 import com.workflow.cmsflowable.dto.request.CreateCaseWithAllegationsRequest;
+import com.workflow.cmsflowable.dto.response.CaseWithAllegationsResponse;
 import com.workflow.cmsflowable.entity.Case;
 import com.workflow.cmsflowable.entity.Allegation;
 import com.workflow.cmsflowable.repository.CaseRepository;
@@ -37,6 +38,15 @@ public class CerbosPermissionEvaluator implements PermissionEvaluator {
     @Autowired
     private CaseRepository caseRepository;
     
+    @Autowired
+    private CerbosBatchAuthorizer batchAuthorizer;
+    
+    @Autowired
+    private CerbosDecisionCache decisionCache;
+    
+    @Autowired
+    private CerbosCallGuard cerbosCallGuard;
+    
     @Override
     public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -138,60 +148,109 @@ public class CerbosPermissionEvaluator implements PermissionEvaluator {
         // Case-specific permissions
         if (targetDomainObject instanceof CreateCaseWithAllegationsRequest || 
             targetDomainObject instanceof Case) {
-            
-            switch (permission.toLowerCase()) {
-                case "create":
-                    return roles.contains("INTAKE_ANALYST") || 
-                           roles.contains("INTAKE_ANALYST_GROUP") || 
-                           roles.contains("INVESTIGATOR") ||
-                           roles.contains("INVESTIGATOR_GROUP") ||
-                           roles.contains("HR_SPECIALIST") ||
-                           roles.contains("HR_GROUP") ||
-                           roles.contains("ADMIN");
-                           
-                case "read":
-                case "view":
-                    return roles.contains("INTAKE_ANALYST") || 
-                           roles.contains("INTAKE_ANALYST_GROUP") || 
-                           roles.contains("INVESTIGATOR") ||
-                           roles.contains("INVESTIGATOR_GROUP") ||
-                           roles.contains("HR_SPECIALIST") ||
-                           roles.contains("HR_GROUP") ||
-                           roles.contains("LEGAL_COUNSEL") ||
-                           roles.contains("LEGAL_GROUP") ||
-                           roles.contains("SECURITY_ANALYST") ||
-                           roles.contains("CSIS_GROUP") ||
-                           roles.contains("DIRECTOR") ||
-                           roles.contains("DIRECTOR_GROUP") ||
-                           roles.contains("ADMIN");
-                           
-                case "update":
-                case "edit":
-                    return roles.contains("INTAKE_ANALYST_GROUP") || 
-                           roles.contains("INVESTIGATOR_GROUP") ||
-                           roles.contains("HR_GROUP") ||
-                           roles.contains("DIRECTOR_GROUP");
-                           
-                case "delete":
-                    return roles.contains("DIRECTOR_GROUP") ||
-                           roles.contains("SYSTEM_ADMIN");
-                           
-                case "approve":
-                    return roles.contains("DIRECTOR_GROUP") ||
-                           roles.contains("HR_GROUP");
-                           
-                case "close":
-                    return roles.contains("DIRECTOR_GROUP") ||
-                           roles.contains("INVESTIGATOR_GROUP");
-                           
-                default:
-                    return false;
-            }
+            return checkBasicCasePermission(roles, permission);
         }
         
         return false;
     }
     
+    /**
+     * Basic role check for case actions
+     */
+    private boolean checkBasicCasePermission(List<String> roles, String permission) {
+        // Admin users have all permissions
+        if (roles.contains("ADMIN") || roles.contains("SYSTEM_ADMIN")) {
+            return true;
+        }
+        
+        switch (permission.toLowerCase()) {
+            case "create":
+                return roles.contains("INTAKE_ANALYST") || 
+                       roles.contains("INTAKE_ANALYST_GROUP") || 
+                       roles.contains("INVESTIGATOR") ||
+                       roles.contains("INVESTIGATOR_GROUP") ||
+                       roles.contains("HR_SPECIALIST") ||
+                       roles.contains("HR_GROUP") ||
+                       roles.contains("ADMIN");
+                       
+            case "read":
+            case "view":
+                return roles.contains("INTAKE_ANALYST") || 
+                       roles.contains("INTAKE_ANALYST_GROUP") || 
+                       roles.contains("INVESTIGATOR") ||
+                       roles.contains("INVESTIGATOR_GROUP") ||
+                       roles.contains("HR_SPECIALIST") ||
+                       roles.contains("HR_GROUP") ||
+                       roles.contains("LEGAL_COUNSEL") ||
+                       roles.contains("LEGAL_GROUP") ||
+                       roles.contains("SECURITY_ANALYST") ||
+                       roles.contains("CSIS_GROUP") ||
+                       roles.contains("DIRECTOR") ||
+                       roles.contains("DIRECTOR_GROUP") ||
+                       roles.contains("IU_MANAGER") ||
+                       roles.contains("ADMIN");
+                       
+            case "update":
+            case "edit":
+                return roles.contains("INTAKE_ANALYST_GROUP") || 
+                       roles.contains("INVESTIGATOR_GROUP") ||
+                       roles.contains("HR_GROUP") ||
+                       roles.contains("DIRECTOR_GROUP");
+                       
+            case "delete":
+                return roles.contains("DIRECTOR_GROUP") ||
+                       roles.contains("SYSTEM_ADMIN");
+                       
+            case "approve":
+                return roles.contains("DIRECTOR_GROUP") ||
+                       roles.contains("HR_GROUP");
+                       
+            case "close":
+                return roles.contains("DIRECTOR_GROUP") ||
+                       roles.contains("INVESTIGATOR_GROUP");
+                       
+            default:
+                return false;
+        }
+    }
+    
+    /**
+     * Cases from a listing the user may perform the action on, checked with one Cerbos
+     * CheckResources call per batch instead of one call per case
+     */
+    public List<CaseWithAllegationsResponse> filterCases(Authentication authentication,
+                                                         List<CaseWithAllegationsResponse> cases, String action) {
+        List<String> roles = extractRoles(authentication);
+        if (roles.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        return batchAuthorizer.filter(authentication, "case", action, cases,
+            CaseWithAllegationsResponse::getCaseId,
+            this::buildCaseAttributes,
+            caseResponse -> checkBasicCasePermission(roles, action));
+    }
+    
+    private Map<String, Object> buildCaseAttributes(CaseWithAllegationsResponse caseResponse) {
+        return caseAttributes(caseResponse.getCaseNumber(), caseResponse.getStatus(), caseResponse.getPriority(),
+            caseResponse.getCreatedBy(), caseResponse.getAssignedTo());
+    }
+    
+    /**
+     * Cerbos attributes of a case; listings and single checks both build them here so a case
+     * is judged on the same attributes (and shares cached decisions) wherever it is checked
+     */
+    private Map<String, Object> caseAttributes(String caseNumber, Object status, Object priority,
+                                               String createdBy, String assignedTo) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("caseNumber", caseNumber);
+        attributes.put("status", status != null ? status.toString() : null);
+        attributes.put("priority", priority != null ? priority.toString() : null);
+        attributes.put("createdBy", createdBy);
+        attributes.put("assignedTo", assignedTo);
+        return attributes;
+    }
+    
     /**
      * Basic permission check by ID implementation until Cerbos SDK is properly configured
      */
@@ -213,29 +272,39 @@ public class CerbosPermissionEvaluator implements PermissionEvaluator {
      */
     private boolean checkCerbosPermission(Authentication authentication, Object targetDomainObject, String action, List<String> roles) {
         try {
-            // Build Principal (user)
-            Principal principal = Principal.newInstance(authentication.getName())
-                .withRoles(roles.toArray(new String[0]));
-            
-            // Add user attributes
-            if (authentication.getPrincipal() instanceof UserPrincipal) {
-                UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-                principal = principal.withAttribute("email", AttributeValue.stringValue(userPrincipal.getEmail()))
-                    .withAttribute("userId", AttributeValue.stringValue(String.valueOf(userPrincipal.getUserId())));
-            }
-            
             // Build Resource based on target object type
-            Resource resource = buildCerbosResource(targetDomainObject);
+            ResourceDescriptor descriptor = describeResource(targetDomainObject);
             
-            // Check permission
-            CheckResult result = cerbosClient.check(principal, resource, action);
-            boolean allowed = result.isAllowed(action);
+            // Reuse a recent decision for the same principal, roles and resource state
+            CerbosDecisionCache.DecisionKey cacheKey = decisionCache.key(authentication.getName(), roles,
+                descriptor.kind(), descriptor.id(), descriptor.attributes(), action);
+            boolean allowed = decisionCache.isAllowed(cacheKey, () -> {
+                // Build Principal (user)
+                Principal principal = Principal.newInstance(authentication.getName())
+                    .withRoles(roles.toArray(new String[0]));
+                
+                // Add user attributes
+                if (authentication.getPrincipal() instanceof UserPrincipal) {
+                    UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+                    principal = principal.withAttribute("email", AttributeValue.stringValue(userPrincipal.getEmail()))
+                        .withAttribute("userId", AttributeValue.stringValue(String.valueOf(userPrincipal.getUserId())));
+                }
+                
+                // Check permission (deadline, bulkhead and circuit breaker apply)
+                CheckResult result = cerbosCallGuard.check(principal, buildCerbosResource(descriptor), action);
+                return result.isAllowed(action);
+            });
             
             log.debug("Cerbos permission check - User: {}, Action: {}, Resource: {}, Allowed: {}", 
                 authentication.getName(), action, "resource", allowed);
                 
             return allowed;
             
+        } catch (CerbosCallGuard.CerbosUnavailableException e) {
+            log.debug("Cerbos unavailable for user {} on action {}, using fallback: {}", 
+                authentication.getName(), action, e.getMessage());
+            return checkBasicPermission(roles, targetDomainObject, action);
+            
         } catch (Exception e) {
             log.error("Error checking Cerbos permission for user {} on action {}: {}", 
                 authentication.getName(), action, e.getMessage());
@@ -245,31 +314,48 @@ public class CerbosPermissionEvaluator implements PermissionEvaluator {
     }
     
     /**
-     * Build Cerbos Resource from domain object
+     * Cerbos kind, id and attributes of a domain object
      */
-    private Resource buildCerbosResource(Object targetDomainObject) {
+    private record ResourceDescriptor(String kind, String id, Map<String, Object> attributes) {}
+    
+    private ResourceDescriptor describeResource(Object targetDomainObject) {
+        Map<String, Object> attributes = new HashMap<>();
         if (targetDomainObject instanceof Case) {
             Case caseObj = (Case) targetDomainObject;
-            return Resource.newInstance("case", caseObj.getCaseId())
-                .withAttribute("status", AttributeValue.stringValue(caseObj.getStatus().toString()))
-                .withAttribute("priority", AttributeValue.stringValue(caseObj.getPriority().toString()));
+            return new ResourceDescriptor("case", caseObj.getCaseId(), caseAttributes(caseObj.getCaseNumber(),
+                caseObj.getStatus(), caseObj.getPriority(),
+                caseObj.getCreatedBy() != null ? caseObj.getCreatedBy().getUsername() : null,
+                caseObj.getAssignedTo() != null ? caseObj.getAssignedTo().getUsername() : null));
                 
         } else if (targetDomainObject instanceof Allegation) {
             Allegation allegation = (Allegation) targetDomainObject;
-            return Resource.newInstance("allegation", allegation.getAllegationId())
-                .withAttribute("classification", AttributeValue.stringValue(allegation.getDepartmentClassification()))
-                .withAttribute("severity", AttributeValue.stringValue(allegation.getSeverity().toString()))
-                .withAttribute("type", AttributeValue.stringValue(allegation.getAllegationType()));
+            attributes.put("classification", allegation.getDepartmentClassification());
+            attributes.put("severity", allegation.getSeverity().toString());
+            attributes.put("type", allegation.getAllegationType());
+            return new ResourceDescriptor("allegation", allegation.getAllegationId(), attributes);
                 
         } else if (targetDomainObject instanceof CreateCaseWithAllegationsRequest) {
             CreateCaseWithAllegationsRequest request = (CreateCaseWithAllegationsRequest) targetDomainObject;
-            return Resource.newInstance("case", "new-case")
-                .withAttribute("priority", AttributeValue.stringValue(request.getPriority().toString()));
+            attributes.put("priority", request.getPriority().toString());
+            return new ResourceDescriptor("case", "new-case", attributes);
                 
         } else {
             // Default resource for unknown types
-            return Resource.newInstance("generic", targetDomainObject.getClass().getSimpleName());
+            return new ResourceDescriptor("generic", targetDomainObject.getClass().getSimpleName(), attributes);
+        }
+    }
+    
+    /**
+     * Build Cerbos Resource from domain object
+     */
+    private Resource buildCerbosResource(ResourceDescriptor descriptor) {
+        Resource resource = Resource.newInstance(descriptor.kind(), descriptor.id());
+        for (Map.Entry<String, Object> entry : descriptor.attributes().entrySet()) {
+            if (entry.getValue() != null) {
+                resource = resource.withAttribute(entry.getKey(), AttributeValue.stringValue(entry.getValue().toString()));
+            }
         }
+        return resource;
     }
     
     /**
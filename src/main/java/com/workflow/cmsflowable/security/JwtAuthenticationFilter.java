@@ -1,6 +1,7 @@
 package com.workflow.cmsflowable.security;
 
 import com.workflow.cmsflowable.service.impl.UserDetailsServiceImpl; 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -18,6 +21,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.lang.NonNull;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -28,6 +33,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl customUserDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // Optionally compare the roles in the token with the user's current (cached) roles
+    @Value("${jwt.role-check.enabled:false}")
+    private boolean roleCheckEnabled;
+
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Override
@@ -36,10 +48,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromJWT(jwt);
-
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.getValidClaims(jwt) : null;
+            if (claims != null && tokenRevocationService.isRevoked(claims.getId())) {
+                logger.debug("Rejected revoked token {}", claims.getId());
+            } else if (claims != null) {
+                UserDetails userDetails = resolvePrincipal(claims);
                 UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -53,6 +66,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Principal rebuilt from the token claims without a database read. Tokens issued before
+     * the claims were added load the user; with the role check enabled, a token whose roles
+     * differ from the user's current ones gets the current principal instead.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        UserPrincipal fromToken = tokenProvider.getPrincipalFromClaims(claims);
+        if (fromToken == null) {
+            return customUserDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (!roleCheckEnabled) {
+            return fromToken;
+        }
+
+        UserDetails current = customUserDetailsService.loadUserByUsername(claims.getSubject());
+        if (!roleCodes(current).equals(roleCodes(fromToken))) {
+            logger.debug("Roles in token for {} are stale, using current roles", claims.getSubject());
+            return current;
+        }
+        return fromToken;
+    }
+
+    private static Set<String> roleCodes(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -60,4 +101,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+}
@@ -2,14 +2,28 @@ package com.workflow.cmsflowable.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
@@ -22,8 +36,35 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
+    // Remember recently verified tokens (by SHA-256 of the token) until they expire
+    @Value("${jwt.verified-token-cache.enabled:false}")
+    private boolean verifiedTokenCacheEnabled;
+
+    @Value("${jwt.verified-token-cache.max-entries:10000}")
+    private int verifiedTokenCacheSize;
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    private final Map<String, Claims> verifiedTokens = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                    return size() > verifiedTokenCacheSize;
+                }
+            });
+
+    @PostConstruct
+    void initialize() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(Authentication authentication) {
@@ -32,10 +73,12 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userPrincipal.getUsername())
                 .issuedAt(new Date())
                 .expiration(expiryDate)
                 .claim("userId", userPrincipal.getUserId())
+                .claim("email", userPrincipal.getEmail())
                 .claim("roles", userPrincipal.getAuthorities().stream()
                     .map(auth -> auth.getAuthority())
                     .collect(java.util.stream.Collectors.toList()))
@@ -45,33 +88,31 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
-    }
-
-    public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.get("userId", Long.class);
-    }
+    /**
+     * Verified claims of the token in a single parse, or null when the token is invalid.
+     * With the verified-token cache enabled, a token seen before is answered from memory
+     * until its expiry.
+     */
+    public Claims getValidClaims(String token) {
+        String tokenHash = verifiedTokenCacheEnabled ? hash(token) : null;
+        if (tokenHash != null) {
+            Claims cached = verifiedTokens.get(tokenHash);
+            if (cached != null) {
+                if (cached.getExpiration() == null || cached.getExpiration().after(new Date())) {
+                    return cached;
+                }
+                verifiedTokens.remove(tokenHash);
+                logger.error("Expired JWT token");
+                return null;
+            }
+        }
 
-    public boolean validateToken(String authToken) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            if (tokenHash != null) {
+                verifiedTokens.put(tokenHash, claims);
+            }
+            return claims;
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -83,6 +124,54 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty.");
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Principal carried by the token's claims, or null for tokens issued without the
+     * userId/email/roles claims (callers load the user instead)
+     */
+    @SuppressWarnings("unchecked")
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        Long userId = claims.get("userId", Long.class);
+        String email = claims.get("email", String.class);
+        List<String> roles = claims.get("roles", List.class);
+        if (userId == null || email == null || roles == null) {
+            return null;
+        }
+
+        Collection<GrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+        List<String> departments = claims.get("departments", List.class);
+        Boolean isManager = claims.get("isManager", Boolean.class);
+
+        return new UserPrincipal(userId, claims.getSubject(), email, null, authorities,
+                departments, Boolean.TRUE.equals(isManager));
+    }
+
+    public String getUsernameFromJWT(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
+        return claims.getSubject();
+    }
+
+    public Long getUserIdFromJWT(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
+        return claims.get("userId", Long.class);
+    }
+
+    public boolean validateToken(String authToken) {
+        return getValidClaims(authToken) != null;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.workflow.cmsflowable.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked JWT ids (jti), each kept until the token's own expiry. Lookups go through a Bloom
+ * filter first, so the usual "not revoked" answer needs neither a map probe nor the database.
+ * Revocations are written to revoked_tokens and other nodes pick them up by polling rows
+ * newer than the last one they saw; with persistence disabled the list is per node.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+    
+    // Re-read this far behind the newest revoked_at seen, for rows committed late or with clock skew
+    private static final long FEED_OVERLAP_SECONDS = 60;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${cms.database.schema:cms_flowable_workflow}")
+    private String schema;
+    
+    @Value("${jwt.revocation.persistence.enabled:true}")
+    private boolean persistenceEnabled;
+    
+    // Sizing of the Bloom filter; it is rebuilt from the live entries on every purge
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+    
+    // jti -> token expiry
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    
+    private volatile BloomFilter bloomFilter;
+    
+    // Newest revoked_at (UTC) read from the change feed
+    private volatile LocalDateTime feedPosition;
+    
+    public TokenRevocationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @PostConstruct
+    void initialize() {
+        bloomFilter = new BloomFilter(expectedEntries);
+        if (persistenceEnabled) {
+            try {
+                pollChanges();
+            } catch (Exception e) {
+                log.warn("Could not load revoked tokens at startup, will retry on next poll: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Revoke a token id until its expiry
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        remember(jti, expiresAt);
+        
+        if (persistenceEnabled) {
+            jdbcTemplate.update(
+                    "INSERT INTO " + schema + ".revoked_tokens (jti, expires_at, revoked_at) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (jti) DO NOTHING",
+                    ps -> {
+                        ps.setString(1, jti);
+                        ps.setObject(2, LocalDateTime.ofInstant(expiresAt, ZoneOffset.UTC), Types.TIMESTAMP);
+                        ps.setObject(3, LocalDateTime.now(ZoneOffset.UTC), Types.TIMESTAMP);
+                    });
+        }
+        log.info("Revoked token {} until {}", jti, expiresAt);
+    }
+    
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        Instant expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+    
+    /**
+     * Pull revocations made on other nodes
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval-ms:5000}")
+    public void scheduledPoll() {
+        if (!persistenceEnabled) {
+            return;
+        }
+        try {
+            pollChanges();
+        } catch (Exception e) {
+            log.error("Revoked token poll failed: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Drop expired entries, rebuild the Bloom filter from the rest and delete expired rows
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        synchronized (this) {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2));
+            revoked.keySet().forEach(rebuilt::put);
+            bloomFilter = rebuilt;
+        }
+        
+        if (persistenceEnabled) {
+            try {
+                int deleted = jdbcTemplate.update(
+                        "DELETE FROM " + schema + ".revoked_tokens WHERE expires_at < ?",
+                        ps -> ps.setObject(1, LocalDateTime.ofInstant(now, ZoneOffset.UTC), Types.TIMESTAMP));
+                log.debug("Purged {} expired revoked tokens", deleted);
+            } catch (Exception e) {
+                log.error("Revoked token purge failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+    
+    private void pollChanges() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime since = feedPosition != null ? feedPosition.minusSeconds(FEED_OVERLAP_SECONDS) : null;
+        
+        String sql = "SELECT jti, expires_at, revoked_at FROM " + schema + ".revoked_tokens WHERE expires_at > ?"
+                + (since != null ? " AND revoked_at > ?" : "");
+        Object[] args = since != null ? new Object[]{now, since} : new Object[]{now};
+        int[] types = since != null ? new int[]{Types.TIMESTAMP, Types.TIMESTAMP} : new int[]{Types.TIMESTAMP};
+        
+        LocalDateTime[] newest = {feedPosition};
+        jdbcTemplate.query(sql, args, types, rs -> {
+            Timestamp revokedAt = rs.getTimestamp("revoked_at");
+            remember(rs.getString("jti"), rs.getTimestamp("expires_at").toLocalDateTime().toInstant(ZoneOffset.UTC));
+            LocalDateTime revokedAtUtc = revokedAt.toLocalDateTime();
+            if (newest[0] == null || revokedAtUtc.isAfter(newest[0])) {
+                newest[0] = revokedAtUtc;
+            }
+        });
+        feedPosition = newest[0] != null ? newest[0] : now;
+    }
+    
+    private synchronized void remember(String jti, Instant expiresAt) {
+        revoked.put(jti, expiresAt);
+        bloomFilter.put(jti);
+    }
+    
+    /**
+     * Bloom filter over token ids, sized for about 1% false positives at the expected count.
+     * Bits are set atomically so readers need no lock.
+     */
+    private static final class BloomFilter {
+        
+        private static final int HASH_FUNCTIONS = 7;
+        
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        
+        BloomFilter(int expectedEntries) {
+            // m = -n ln(0.01) / (ln 2)^2, about 9.6 bits per entry
+            long bitsNeeded = Math.max(1024, (long) Math.ceil(expectedEntries * 9.6));
+            int words = (int) Math.min(Integer.MAX_VALUE, (bitsNeeded + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+        }
+        
+        void put(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASH_FUNCTIONS; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+        
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASH_FUNCTIONS; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        // FNV-1a over the chars, finished with a 64-bit mix so both halves are well distributed
+        private static long hash64(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -19,6 +19,8 @@ public class UserPrincipal implements UserDetails {
     private Collection<? extends GrantedAuthority> authorities;
     private List<String> departments;
     private boolean isManager;
+    private String firstName;
+    private String lastName;
 
     public UserPrincipal(Long userId, String username, String email, String password, 
                             Collection<? extends GrantedAuthority> authorities) {
@@ -55,7 +57,7 @@ public class UserPrincipal implements UserDetails {
         boolean isManager = user.getRoles().stream()
                 .anyMatch(role -> role.getRoleCode().contains("MANAGER") || role.getRoleCode().contains("DIRECTOR"));
 
-        return new UserPrincipal(
+        UserPrincipal principal = new UserPrincipal(
                 user.getUserId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -64,6 +66,9 @@ public class UserPrincipal implements UserDetails {
                 departments,
                 isManager
         );
+        principal.firstName = user.getFirstName();
+        principal.lastName = user.getLastName();
+        return principal;
     }
 
     private static List<String> extractDepartments(User user) {
@@ -137,4 +142,6 @@ public class UserPrincipal implements UserDetails {
     public String getEmail() { return email; }
     public List<String> getDepartments() { return departments; }
     public boolean isManager() { return isManager; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.workflow.cmsflowable.security;
+
+import com.workflow.cmsflowable.model.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Size- and time-bounded cache of loaded principals, reachable by username and by user id.
+ * Entries expire after {@code cms.security.principal-cache.ttl-seconds} and are dropped on
+ * {@link UserChangedEvent}. Hits and misses are counted in {@code cms.security.principal.cache}.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache {
+    
+    private record CachedPrincipal(UserPrincipal principal, long expiresAtNanos) {}
+    
+    @Value("${cms.security.principal-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cms.security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    // Each principal is stored under two keys (username and user id)
+    @Value("${cms.security.principal-cache.max-entries:2000}")
+    private int maxEntries;
+    
+    private final Counter hits;
+    private final Counter misses;
+    
+    private final Map<String, CachedPrincipal> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+    
+    public UserPrincipalCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("cms.security.principal.cache")
+                .tag("result", "hit")
+                .description("Principals served from the local cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cms.security.principal.cache")
+                .tag("result", "miss")
+                .description("Principals loaded from the database")
+                .register(meterRegistry);
+        Gauge.builder("cms.security.principal.cache.size", cache, Map::size)
+                .description("Cached principal keys")
+                .register(meterRegistry);
+    }
+    
+    public UserPrincipal getByUsername(String username, Supplier<UserPrincipal> loader) {
+        return get(usernameKey(username), loader);
+    }
+    
+    public UserPrincipal getByUserId(Long userId, Supplier<UserPrincipal> loader) {
+        return get(userIdKey(userId), loader);
+    }
+    
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUsername() != null) {
+            evict(usernameKey(event.getUsername()));
+        }
+        if (event.getUserId() != null) {
+            evict(userIdKey(event.getUserId()));
+        }
+        log.debug("Principal cache invalidated for user {} ({})", event.getUsername(), event.getUserId());
+    }
+    
+    public void invalidateAll() {
+        cache.clear();
+        log.info("Principal cache invalidated");
+    }
+    
+    private UserPrincipal get(String key, Supplier<UserPrincipal> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        
+        CachedPrincipal cached = cache.get(key);
+        if (cached != null && cached.expiresAtNanos() - System.nanoTime() > 0) {
+            hits.increment();
+            return cached.principal();
+        }
+        misses.increment();
+        
+        UserPrincipal principal = loader.get();
+        CachedPrincipal entry = new CachedPrincipal(principal, System.nanoTime() + ttlSeconds * 1_000_000_000L);
+        synchronized (cache) {
+            cache.put(usernameKey(principal.getUsername()), entry);
+            cache.put(userIdKey(principal.getUserId()), entry);
+        }
+        return principal;
+    }
+    
+    // Drop the entry under both of its keys
+    private void evict(String key) {
+        synchronized (cache) {
+            CachedPrincipal cached = cache.remove(key);
+            if (cached != null) {
+                cache.remove(usernameKey(cached.principal().getUsername()));
+                cache.remove(userIdKey(cached.principal().getUserId()));
+            }
+        }
+    }
+    
+    private static String usernameKey(String username) {
+        return "u:" + username;
+    }
+    
+    private static String userIdKey(Long userId) {
+        return "id:" + userId;
+    }
+}
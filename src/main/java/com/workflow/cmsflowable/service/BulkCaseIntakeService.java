@@ -0,0 +1,292 @@
+package com.workflow.cmsflowable.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.cmsflowable.dto.request.CreateCaseWithAllegationsRequest;
+import com.workflow.cmsflowable.dto.response.BulkCaseIntakeResponse;
+import com.workflow.cmsflowable.dto.response.BulkCaseIntakeResponse.RecordResult;
+import com.workflow.cmsflowable.dto.response.CaseWithAllegationsResponse;
+import com.workflow.cmsflowable.entity.Priority;
+import com.workflow.cmsflowable.entity.Severity;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Streams NDJSON or CSV case records and creates them in chunks, one transaction per chunk.
+ * A failing chunk is retried record by record so every record gets its own result.
+ *
+ * CSV bodies need a header row naming the columns: title, description, priority, complainantName,
+ * complainantEmail, allegationType, severity, allegationDescription and an optional recordId.
+ * Each row is one allegation; consecutive rows sharing a recordId form one case, rows without
+ * a recordId are single-allegation cases. Quoted fields may not span lines.
+ */
+@Service
+@Slf4j
+public class BulkCaseIntakeService {
+    
+    private final CaseWorkflowService caseWorkflowService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${cms.case.bulk-chunk-size:100}")
+    private int chunkSize;
+    
+    public BulkCaseIntakeService(CaseWorkflowService caseWorkflowService,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 PlatformTransactionManager transactionManager) {
+        this.caseWorkflowService = caseWorkflowService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    private record PendingRecord(long lineNumber, CreateCaseWithAllegationsRequest request) {}
+    
+    /**
+     * One CreateCaseWithAllegationsRequest JSON object per line
+     */
+    public BulkCaseIntakeResponse importNdjson(InputStream body) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        List<RecordResult> results = new ArrayList<>();
+        List<PendingRecord> chunk = new ArrayList<>(chunkSize);
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    CreateCaseWithAllegationsRequest request = objectMapper.readValue(line, CreateCaseWithAllegationsRequest.class);
+                    accept(new PendingRecord(lineNumber, request), chunk, results);
+                } catch (IOException e) {
+                    results.add(failed(lineNumber, "Invalid JSON: " + e.getOriginalMessage()));
+                }
+            }
+        }
+        processChunk(chunk, results);
+        
+        return summarize(results, startedAt);
+    }
+    
+    public BulkCaseIntakeResponse importCsv(InputStream body) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        List<RecordResult> results = new ArrayList<>();
+        List<PendingRecord> chunk = new ArrayList<>(chunkSize);
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return summarize(results, startedAt);
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> headers = parseCsvLine(headerLine);
+            for (int i = 0; i < headers.size(); i++) {
+                columns.put(headers.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            
+            String line;
+            long lineNumber = 1;
+            String currentRecordId = null;
+            String rejectedRecordId = null;
+            long currentLineNumber = 0;
+            CreateCaseWithAllegationsRequest current = null;
+            
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = parseCsvLine(line);
+                String recordId = csvValue(fields, columns, "recordid");
+                if (recordId != null && recordId.equals(rejectedRecordId)) {
+                    continue; // Remaining rows of a case that already failed
+                }
+                
+                boolean continuation = current != null && recordId != null && recordId.equals(currentRecordId);
+                if (!continuation && current != null) {
+                    accept(new PendingRecord(currentLineNumber, current), chunk, results);
+                    current = null;
+                }
+                
+                try {
+                    if (continuation) {
+                        current.getAllegations().add(toAllegation(fields, columns));
+                    } else {
+                        current = toCaseRequest(fields, columns);
+                        currentRecordId = recordId;
+                        currentLineNumber = lineNumber;
+                    }
+                } catch (IllegalArgumentException e) {
+                    long failedLine = continuation ? currentLineNumber : lineNumber;
+                    results.add(failed(failedLine, "Line " + lineNumber + ": " + e.getMessage()));
+                    rejectedRecordId = recordId;
+                    current = null;
+                }
+            }
+            if (current != null) {
+                accept(new PendingRecord(currentLineNumber, current), chunk, results);
+            }
+        }
+        processChunk(chunk, results);
+        
+        return summarize(results, startedAt);
+    }
+    
+    private void accept(PendingRecord record, List<PendingRecord> chunk, List<RecordResult> results) {
+        Set<ConstraintViolation<CreateCaseWithAllegationsRequest>> violations = validator.validate(record.request());
+        if (!violations.isEmpty()) {
+            results.add(failed(record.lineNumber(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "))));
+            return;
+        }
+        
+        chunk.add(record);
+        if (chunk.size() >= chunkSize) {
+            processChunk(chunk, results);
+        }
+    }
+    
+    private void processChunk(List<PendingRecord> chunk, List<RecordResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<CaseWithAllegationsResponse> created = transactionTemplate.execute(status ->
+                    caseWorkflowService.createCasesWithWorkflow(
+                            chunk.stream().map(PendingRecord::request).collect(Collectors.toList())));
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(created(chunk.get(i).lineNumber(), created.get(i).getCaseNumber()));
+            }
+            log.info("Bulk intake: created {} cases (lines {}-{})",
+                    chunk.size(), chunk.get(0).lineNumber(), chunk.get(chunk.size() - 1).lineNumber());
+        } catch (RuntimeException e) {
+            log.warn("Bulk intake chunk starting at line {} failed ({}); retrying its {} records individually",
+                    chunk.get(0).lineNumber(), e.getMessage(), chunk.size());
+            for (PendingRecord record : chunk) {
+                try {
+                    CaseWithAllegationsResponse response = transactionTemplate.execute(status ->
+                            caseWorkflowService.createCaseWithWorkflow(record.request()));
+                    results.add(created(record.lineNumber(), response.getCaseNumber()));
+                } catch (RuntimeException recordError) {
+                    results.add(failed(record.lineNumber(), recordError.getMessage()));
+                }
+            }
+        }
+        chunk.clear();
+    }
+    
+    private CreateCaseWithAllegationsRequest toCaseRequest(List<String> fields, Map<String, Integer> columns) {
+        CreateCaseWithAllegationsRequest request = new CreateCaseWithAllegationsRequest();
+        request.setTitle(csvValue(fields, columns, "title"));
+        request.setDescription(csvValue(fields, columns, "description"));
+        request.setComplainantName(csvValue(fields, columns, "complainantname"));
+        request.setComplainantEmail(csvValue(fields, columns, "complainantemail"));
+        String priority = csvValue(fields, columns, "priority");
+        if (priority != null) {
+            request.setPriority(parseEnum(Priority.class, priority, "priority"));
+        }
+        request.setAllegations(new ArrayList<>(List.of(toAllegation(fields, columns))));
+        return request;
+    }
+    
+    private CreateCaseWithAllegationsRequest.AllegationRequest toAllegation(List<String> fields, Map<String, Integer> columns) {
+        CreateCaseWithAllegationsRequest.AllegationRequest allegation = new CreateCaseWithAllegationsRequest.AllegationRequest();
+        allegation.setAllegationType(csvValue(fields, columns, "allegationtype"));
+        allegation.setDescription(csvValue(fields, columns, "allegationdescription"));
+        String severity = csvValue(fields, columns, "severity");
+        if (severity != null) {
+            allegation.setSeverity(parseEnum(Severity.class, severity, "severity"));
+        }
+        return allegation;
+    }
+    
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String value, String column) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+    
+    private String csvValue(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    /**
+     * Split one CSV line, honouring double-quoted fields and "" escapes
+     */
+    private List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    private BulkCaseIntakeResponse summarize(List<RecordResult> results, long startedAt) {
+        results.sort(Comparator.comparingLong(RecordResult::getLineNumber));
+        int createdCount = (int) results.stream().filter(RecordResult::isCreated).count();
+        
+        return BulkCaseIntakeResponse.builder()
+                .totalRecords(results.size())
+                .createdCount(createdCount)
+                .failedCount(results.size() - createdCount)
+                .durationMillis(System.currentTimeMillis() - startedAt)
+                .results(results)
+                .build();
+    }
+    
+    private RecordResult created(long lineNumber, String caseNumber) {
+        return RecordResult.builder().lineNumber(lineNumber).created(true).caseNumber(caseNumber).build();
+    }
+    
+    private RecordResult failed(long lineNumber, String error) {
+        return RecordResult.builder().lineNumber(lineNumber).created(false).error(error).build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.workflow.cmsflowable.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Resolves process instance id -> business key with one batched engine query per call,
+ * backed by a bounded LRU cache (business keys do not change once a case workflow is started).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BusinessKeyResolver {
+    
+    private final RuntimeService runtimeService;
+    
+    @Value("${cms.queue.business-key-cache-size:10000}")
+    private int maxCacheSize;
+    
+    private final Map<String, String> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > maxCacheSize;
+                }
+            });
+    
+    /**
+     * Resolve the business key of a single process instance
+     */
+    public String resolve(String processInstanceId) {
+        if (processInstanceId == null) {
+            return null;
+        }
+        return resolveAll(Set.of(processInstanceId)).get(processInstanceId);
+    }
+    
+    /**
+     * Resolve business keys for many process instances; ended or unknown instances are absent from the result
+     */
+    public Map<String, String> resolveAll(Collection<String> processInstanceIds) {
+        Map<String, String> result = new HashMap<>();
+        Set<String> misses = new HashSet<>();
+        
+        for (String processInstanceId : processInstanceIds) {
+            if (processInstanceId == null) {
+                continue;
+            }
+            String businessKey = cache.get(processInstanceId);
+            if (businessKey != null) {
+                result.put(processInstanceId, businessKey);
+            } else {
+                misses.add(processInstanceId);
+            }
+        }
+        
+        if (misses.isEmpty()) {
+            return result;
+        }
+        
+        try {
+            List<ProcessInstance> processInstances = runtimeService.createProcessInstanceQuery()
+                    .processInstanceIds(misses)
+                    .list();
+            for (ProcessInstance processInstance : processInstances) {
+                if (processInstance.getBusinessKey() != null) {
+                    cache.put(processInstance.getId(), processInstance.getBusinessKey());
+                    result.put(processInstance.getId(), processInstance.getBusinessKey());
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Could not fetch business keys for {} process instances: {}", misses.size(), e.getMessage());
+        }
+        
+        return result;
+    }
+}
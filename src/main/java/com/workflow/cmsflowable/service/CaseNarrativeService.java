@@ -3,13 +3,13 @@ package com.workflow.cmsflowable.service;
 import com.workflow.cmsflowable.dto.request.CaseNarrativeRequest;
 import com.workflow.cmsflowable.dto.response.CaseNarrativeResponse;
 import com.workflow.cmsflowable.entity.CaseNarrative;
-import com.workflow.cmsflowable.entity.User;
 import com.workflow.cmsflowable.repository.CaseNarrativeRepository;
-import com.workflow.cmsflowable.repository.UserRepository;
 import com.workflow.cmsflowable.security.UserPrincipal;
+import com.workflow.cmsflowable.service.impl.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -24,7 +24,7 @@ public class CaseNarrativeService {
     private CaseNarrativeRepository caseNarrativeRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserDetailsServiceImpl userDetailsService;
 
     public List<CaseNarrativeResponse> getNarrativesByCaseId(String caseId) {
         return caseNarrativeRepository.findByCaseIdOrderByCreatedAt(caseId)
@@ -124,9 +124,12 @@ public class CaseNarrativeService {
 
         // Set created by name
         if (narrative.getCreatedBy() != null) {
-            Optional<User> user = userRepository.findByUserId(narrative.getCreatedBy());
-            if (user.isPresent()) {
-                response.setCreatedByName(user.get().getFirstName() + " " + user.get().getLastName() + " (" + user.get().getUsername() + ")");
+            try {
+                // Served from the principal cache, so a page of narratives by the same author costs one lookup
+                UserPrincipal author = (UserPrincipal) userDetailsService.loadUserByUserId(narrative.getCreatedBy());
+                response.setCreatedByName(author.getFirstName() + " " + author.getLastName() + " (" + author.getUsername() + ")");
+            } catch (UsernameNotFoundException e) {
+                // Unknown author, leave the name empty
             }
         }
 
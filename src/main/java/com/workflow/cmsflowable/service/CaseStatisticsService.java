@@ -0,0 +1,125 @@
+package com.workflow.cmsflowable.service;
+
+import com.workflow.cmsflowable.dto.response.CaseStatisticsResponse;
+import com.workflow.cmsflowable.repository.CaseRepository;
+import com.workflow.cmsflowable.repository.projection.CaseStatusPriorityCount;
+import com.workflow.cmsflowable.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Dashboard case counts from a single GROUP BY status, priority query. Callers with a case-wide
+ * role see all cases; everyone else sees the cases they are involved in. Results are cached
+ * per scope for cms.case.stats-cache-seconds (0 disables the cache).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class CaseStatisticsService {
+    
+    // Same authorities that may list all cases (GET /v1/cases)
+    private static final Set<String> CASE_WIDE_AUTHORITIES = Set.of(
+            "DIRECTOR", "IU_MANAGER", "INTAKE_ANALYST", "HR_SPECIALIST", "LEGAL_COUNSEL", "SECURITY_ANALYST", "ADMIN");
+    private static final String ALL_CASES_SCOPE = "*";
+    private static final int MAX_CACHED_SCOPES = 1000;
+    
+    private final CaseRepository caseRepository;
+    
+    private final ConcurrentMap<String, CachedStatistics> cache = new ConcurrentHashMap<>();
+    
+    @Value("${cms.case.stats-cache-seconds:5}")
+    private long cacheSeconds;
+    
+    private record CachedStatistics(CaseStatisticsResponse statistics, long expiresAt) {}
+    
+    public CaseStatisticsResponse getStatistics(Authentication authentication) {
+        Long userId = caseWideAccess(authentication) ? null : userIdOf(authentication);
+        String scope = userId == null ? ALL_CASES_SCOPE : userId.toString();
+        
+        if (cacheSeconds <= 0) {
+            return computeStatistics(userId);
+        }
+        
+        long now = System.currentTimeMillis();
+        CachedStatistics cached = cache.get(scope);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.statistics();
+        }
+        
+        CaseStatisticsResponse statistics = computeStatistics(userId);
+        if (cache.size() >= MAX_CACHED_SCOPES) {
+            cache.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        cache.put(scope, new CachedStatistics(statistics, now + cacheSeconds * 1000));
+        return statistics;
+    }
+    
+    private CaseStatisticsResponse computeStatistics(Long userId) {
+        List<CaseStatusPriorityCount> counts = userId == null
+                ? caseRepository.countByStatusAndPriority()
+                : caseRepository.countByStatusAndPriorityForUser(userId);
+        
+        long allOpenCases = 0;
+        long openInvestigations = 0;
+        long totalCases = 0;
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byPriority = new TreeMap<>();
+        
+        for (CaseStatusPriorityCount count : counts) {
+            String status = count.getStatus();
+            String priority = count.getPriority();
+            long caseCount = count.getCaseCount() != null ? count.getCaseCount() : 0L;
+            
+            totalCases += caseCount;
+            if ("OPEN".equals(status) || "IN_PROGRESS".equals(status)) {
+                allOpenCases += caseCount;
+            }
+            if ("IN_PROGRESS".equals(status) || "HIGH".equals(priority) || "CRITICAL".equals(priority)) {
+                openInvestigations += caseCount;
+            }
+            if (status != null) {
+                byStatus.merge(status, caseCount, Long::sum);
+            }
+            if (priority != null) {
+                byPriority.merge(priority, caseCount, Long::sum);
+            }
+        }
+        
+        return CaseStatisticsResponse.builder()
+                .allOpenCases(allOpenCases)
+                .openInvestigations(openInvestigations)
+                .totalCases(totalCases)
+                .byStatus(byStatus)
+                .byPriority(byPriority)
+                .build();
+    }
+    
+    private boolean caseWideAccess(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith("ROLE_") ? authority.substring(5) : authority)
+                .anyMatch(CASE_WIDE_AUTHORITIES::contains);
+    }
+    
+    private Long userIdOf(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal userPrincipal && userPrincipal.getUserId() != null) {
+            return userPrincipal.getUserId();
+        }
+        // No user id to scope by: fall back to an empty scope rather than all cases
+        log.debug("No user id on principal {}; case statistics scoped to nothing", authentication.getName());
+        return -1L;
+    }
+}
@@ -2,27 +2,35 @@ package com.workflow.cmsflowable.service;
 
 import com.workflow.cmsflowable.dto.request.CreateCaseWithAllegationsRequest;
 import com.workflow.cmsflowable.dto.request.TaskTransitionRequest;
+import com.workflow.cmsflowable.dto.response.CasePageResponse;
 import com.workflow.cmsflowable.dto.response.CaseWithAllegationsResponse;
 import com.workflow.cmsflowable.dto.response.WorkflowTaskResponse;
 import com.workflow.cmsflowable.entity.*;
 import com.workflow.cmsflowable.repository.AllegationRepository;
 import com.workflow.cmsflowable.repository.CaseRepository;
-import com.workflow.cmsflowable.repository.WorkItemEntityRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.RuntimeService;
 import org.flowable.engine.TaskService;
 import org.flowable.identitylink.api.IdentityLink;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.api.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 // import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Slf4j
 public class CaseWorkflowService {
     
     @Autowired
@@ -31,9 +39,6 @@ public class CaseWorkflowService {
     @Autowired
     private AllegationRepository allegationRepository;
     
-    @Autowired
-    private WorkItemEntityRepository workItemRepository;
-    
     @Autowired
     private RuntimeService runtimeService;
     
@@ -44,17 +49,50 @@ public class CaseWorkflowService {
     private DetermineDepartmentRoutingService dmnService;
     
     @Autowired
-    private QueueTaskService queueTaskService;
+    private IdAllocationService idAllocationService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     private static final String CASE_WORKFLOW_PROCESS_KEY = "Process_CMS_Workflow_Updated";
     
     // @PreAuthorize("hasPermission(#request, 'case', 'intake_initial_review')")
     public CaseWithAllegationsResponse createCaseWithWorkflow(CreateCaseWithAllegationsRequest request) {
-        System.out.println("STARTING FULL CASE CREATION AND WORKFLOW PROCESS!");
+        log.debug("Starting case creation and workflow for: {}", request.getTitle());
         
+        CaseCreation creation = startCase(request, new HashMap<>());
+        flushCaseRecords();
+        
+        log.debug("Case {} created and workflow started", creation.caseEntity().getCaseNumber());
+        return convertToCaseWithAllegationsResponse(creation.caseEntity(), creation.allegations());
+    }
+    
+    /**
+     * Create a chunk of cases in the caller's transaction. DMN classifications are shared across
+     * the chunk and all rows are written by a single flush at the end; any failure fails the chunk.
+     */
+    public List<CaseWithAllegationsResponse> createCasesWithWorkflow(List<CreateCaseWithAllegationsRequest> requests) {
+        Map<String, Map<String, Object>> classifications = new HashMap<>();
+        List<CaseCreation> creations = new ArrayList<>(requests.size());
+        for (CreateCaseWithAllegationsRequest request : requests) {
+            creations.add(startCase(request, classifications));
+        }
+        flushCaseRecords();
+        
+        return creations.stream()
+            .map(creation -> convertToCaseWithAllegationsResponse(creation.caseEntity(), creation.allegations()))
+            .collect(Collectors.toList());
+    }
+    
+    private record CaseCreation(Case caseEntity, List<Allegation> allegations) {}
+    
+    /**
+     * Classify, start the process and register the new rows with the persistence context (not yet flushed)
+     */
+    private CaseCreation startCase(CreateCaseWithAllegationsRequest request, Map<String, Map<String, Object>> classifications) {
         // Generate case number
         String caseNumber = generateCaseNumber();
-        System.out.println("Generated case number: " + caseNumber);
+        log.debug("Generated case number: {}", caseNumber);
         
         // Create case entity
         Case caseEntity = new Case();
@@ -67,41 +105,28 @@ public class CaseWorkflowService {
         caseEntity.setComplainantEmail(request.getComplainantEmail());
         caseEntity.setStatus(CaseStatus.OPEN);
         
-        // Save case to database
-        Case savedCase = caseRepository.save(caseEntity);
-        System.out.println("Case saved to database with ID: " + savedCase.getCaseId());
-        
-        // Create both work items AND allegations
+        // Classify every allegation up front; identical type/severity pairs share one DMN evaluation
+        // Create both work items AND allegations in memory; nothing is written until the process has started
         List<WorkItemEntity> workItems = new ArrayList<>();
         List<Allegation> allegations = new ArrayList<>();
+        List<String> allegationPriorities = new ArrayList<>();
+        List<String> workItemIds = idAllocationService.nextWorkItemIds(request.getAllegations().size());
         int allegationCounter = 1;
         
         for (CreateCaseWithAllegationsRequest.AllegationRequest allegationReq : request.getAllegations()) {
-            String workItemId = java.util.UUID.randomUUID().toString();
+            String workItemId = workItemIds.get(allegationCounter - 1);
             String allegationId = "ALG-" + caseNumber.substring(4) + "-" + String.format("%02d", allegationCounter);
             String workItemNumber = caseNumber + "-WI-" + String.format("%02d", allegationCounter);
             
             // Use DMN decision table to classify allegation and determine assigned group
-            Map<String, Object> dmnResult = dmnService.callAllegationClassificationDMN(
-                allegationReq.getAllegationType(), 
-                allegationReq.getSeverity().toString()
+            Map<String, Object> dmnResult = classifications.computeIfAbsent(
+                allegationReq.getAllegationType() + "|" + allegationReq.getSeverity(),
+                key -> evaluateClassification(allegationReq.getAllegationType(), allegationReq.getSeverity().toString())
             );
             
-            String classification;
-            String assignedGroup;
-            String priority;
-            
-            if (dmnResult != null) {
-                classification = (String) dmnResult.get("classification");
-                assignedGroup = (String) dmnResult.get("assignedGroup");
-                priority = (String) dmnResult.get("priority");
-            } else {
-                // Fallback to default values if DMN returns null
-                System.out.println("DMN returned null for allegationType: " + allegationReq.getAllegationType() + ", severity: " + allegationReq.getSeverity());
-                classification = "HR";
-                assignedGroup = "HR_GROUP";
-                priority = "MEDIUM";
-            }
+            String classification = (String) dmnResult.get("classification");
+            String assignedGroup = (String) dmnResult.get("assignedGroup");
+            String priority = (String) dmnResult.get("priority");
             
             // Use DMN priority if available, otherwise fall back to request priority
             String workItemPriority = (priority != null) ? priority : request.getPriority().toString();
@@ -110,7 +135,7 @@ public class CaseWorkflowService {
             WorkItemEntity workItem = new WorkItemEntity();
             workItem.setWorkItemId(workItemId);
             workItem.setWorkItemNumber(workItemNumber);
-            workItem.setCaseId(savedCase.getCaseId());
+            workItem.setCaseId(caseEntity.getCaseId());
             workItem.setType(allegationReq.getAllegationType());
             workItem.setSeverity(allegationReq.getSeverity().toString());
             workItem.setDescription(allegationReq.getDescription());
@@ -124,7 +149,7 @@ public class CaseWorkflowService {
             // Create Allegation entity for allegations table
             Allegation allegation = new Allegation();
             allegation.setAllegationId(allegationId);
-            allegation.setCaseId(savedCase.getCaseId());
+            allegation.setCaseId(caseEntity.getCaseId());
             allegation.setAllegationType(allegationReq.getAllegationType());
             allegation.setSeverity(allegationReq.getSeverity());
             allegation.setDescription(allegationReq.getDescription());
@@ -132,59 +157,37 @@ public class CaseWorkflowService {
             allegation.setAssignedGroup(assignedGroup);
             
             allegations.add(allegation);
+            allegationPriorities.add(priority);
             
             allegationCounter++;
-            System.out.println("Created work item: " + workItemNumber + " and allegation: " + allegationId + " for " + allegationReq.getAllegationType());
         }
         
-        // Save work items to database
-        System.out.println("Attempting to save " + workItems.size() + " work items to database");
-        List<WorkItemEntity> savedWorkItems;
-        try {
-            savedWorkItems = workItemRepository.saveAll(workItems);
-            System.out.println("Successfully saved " + savedWorkItems.size() + " work items to database");
-        } catch (Exception e) {
-            System.err.println("Error saving work items: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to save work items: " + e.getMessage(), e);
-        }
-        
-        // Save allegations to database
-        System.out.println("Attempting to save " + allegations.size() + " allegations to database");
-        List<Allegation> savedAllegations;
-        try {
-            savedAllegations = allegationRepository.saveAll(allegations);
-            System.out.println("Successfully saved " + savedAllegations.size() + " allegations to database");
-            for (Allegation savedAllegation : savedAllegations) {
-                System.out.println("Saved allegation: " + savedAllegation.getAllegationId() + " (Type: " + savedAllegation.getAllegationType() + ")");
-            }
-        } catch (Exception e) {
-            System.err.println("Error saving allegations: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to save allegations: " + e.getMessage(), e);
-        }
+        log.debug("Prepared {} work items and {} allegations using {} DMN evaluations",
+            workItems.size(), allegations.size(), classifications.size());
         
         // Prepare workflow variables
         Map<String, Object> workflowVariables = new HashMap<>();
-        workflowVariables.put("caseId", savedCase.getCaseNumber());
-        workflowVariables.put("caseTitle", savedCase.getTitle());
-        workflowVariables.put("priority", savedCase.getPriority().toString());
-        workflowVariables.put("complainantName", savedCase.getComplainantName());
-        workflowVariables.put("complainantEmail", savedCase.getComplainantEmail());
-        workflowVariables.put("workItemCount", savedWorkItems.size());
-        workflowVariables.put("allegationCount", savedAllegations.size());
+        workflowVariables.put("caseId", caseEntity.getCaseNumber());
+        workflowVariables.put("caseTitle", caseEntity.getTitle());
+        workflowVariables.put("priority", caseEntity.getPriority().toString());
+        workflowVariables.put("complainantName", caseEntity.getComplainantName());
+        workflowVariables.put("complainantEmail", caseEntity.getComplainantEmail());
+        workflowVariables.put("workItemCount", workItems.size());
+        workflowVariables.put("allegationCount", allegations.size());
         
         // Prepare allegations data for DMN decision
-        if (!savedAllegations.isEmpty()) {
-            Allegation primaryAllegation = savedAllegations.get(0);
+        if (!allegations.isEmpty()) {
+            Allegation primaryAllegation = allegations.get(0);
             workflowVariables.put("allegationType", primaryAllegation.getAllegationType());
             workflowVariables.put("severity", primaryAllegation.getSeverity().toString());
             workflowVariables.put("classification", primaryAllegation.getDepartmentClassification());
         }
         
-        // Create allegations list for multi-instance workflow
+        // Create allegations list for multi-instance workflow. The DMN outcome is included so the
+        // routing delegate does not evaluate the decision table a second time.
         List<Map<String, Object>> allegationsForWorkflow = new ArrayList<>();
-        for (Allegation allegation : savedAllegations) {
+        for (int i = 0; i < allegations.size(); i++) {
+            Allegation allegation = allegations.get(i);
             Map<String, Object> allegationMap = new HashMap<>();
             allegationMap.put("allegationId", allegation.getAllegationId());
             allegationMap.put("description", allegation.getDescription());
@@ -192,96 +195,84 @@ public class CaseWorkflowService {
             allegationMap.put("severity", allegation.getSeverity().toString());
             allegationMap.put("classification", allegation.getDepartmentClassification());
             allegationMap.put("assignedGroup", allegation.getAssignedGroup());
+            allegationMap.put("priority", allegationPriorities.get(i));
             allegationMap.put("caseId", allegation.getCaseId());
             allegationsForWorkflow.add(allegationMap);
         }
         workflowVariables.put("allegations", allegationsForWorkflow);
         
-        System.out.println("Prepared " + allegationsForWorkflow.size() + " allegations for multi-instance processing:");
-        
         // Determine which departments are needed based on classifications
-        boolean hrNeeded = savedAllegations.stream().anyMatch(a -> "HR".equals(a.getDepartmentClassification()));
-        boolean legalNeeded = savedAllegations.stream().anyMatch(a -> "LEGAL".equals(a.getDepartmentClassification()));
-        boolean csisNeeded = savedAllegations.stream().anyMatch(a -> "CSIS".equals(a.getDepartmentClassification()));
+        boolean hrNeeded = allegations.stream().anyMatch(a -> "HR".equals(a.getDepartmentClassification()));
+        boolean legalNeeded = allegations.stream().anyMatch(a -> "LEGAL".equals(a.getDepartmentClassification()));
+        boolean csisNeeded = allegations.stream().anyMatch(a -> "CSIS".equals(a.getDepartmentClassification()));
         
         workflowVariables.put("hrNeeded", hrNeeded);
         workflowVariables.put("legalNeeded", legalNeeded);
         workflowVariables.put("csisNeeded", csisNeeded);
         
-        System.out.println("Department flags: HR=" + hrNeeded + ", Legal=" + legalNeeded + ", CSIS=" + csisNeeded);
-        System.out.println("Prepared workflow variables: " + workflowVariables.keySet());
+        log.debug("Department flags: HR={}, Legal={}, CSIS={}", hrNeeded, legalNeeded, csisNeeded);
         
         // Start Flowable BPMN workflow process
+        ProcessInstance processInstance;
         try {
-            ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(
+            processInstance = runtimeService.startProcessInstanceByKey(
                 CASE_WORKFLOW_PROCESS_KEY, 
-                savedCase.getCaseNumber(), 
+                caseEntity.getCaseNumber(), 
                 workflowVariables
             );
-            
-            System.out.println("Started Flowable workflow process!");
-            System.out.println("   Process Instance ID: " + processInstance.getId());
-            System.out.println("   Process Definition ID: " + processInstance.getProcessDefinitionId());
-            System.out.println("   Business Key: " + processInstance.getBusinessKey());
-            
-            // Update case with workflow instance ID (keep as string for UUID)
-            // Note: Converting UUID to hash for Long field, but keeping full ID in logs
-            savedCase.setWorkflowInstanceKey((long) processInstance.getId().hashCode());
-            savedCase = caseRepository.save(savedCase);
-            
-            System.out.println("Updated case with workflow instance hash: " + savedCase.getWorkflowInstanceKey());
-            System.out.println("    Full Process Instance UUID: " + processInstance.getId());
-            
-            // Update work items with process instance ID
-            for (WorkItemEntity workItem : savedWorkItems) {
-                workItem.setFlowableProcessInstanceId(processInstance.getId());
-            }
-            workItemRepository.saveAll(savedWorkItems);
-            
-            // Update allegations with process instance ID
-            for (Allegation allegation : savedAllegations) {
-                allegation.setFlowablePlanItemId(processInstance.getId());
-            }
-            allegationRepository.saveAll(savedAllegations);
-            
-            System.out.println("Updated case, work items, and allegations with process instance ID");
-            
-            // Populate queue tasks for the new process instance
-            try {
-                queueTaskService.populateQueueTasksForProcessInstance(processInstance.getId(), CASE_WORKFLOW_PROCESS_KEY);
-                System.out.println("Successfully populated queue tasks for process instance: " + processInstance.getId());
-            } catch (Exception e) {
-                System.err.println("Warning: Failed to populate queue tasks: " + e.getMessage());
-                // Don't fail the entire process for queue population issues
-            }
-            
-            // Get active tasks
-            List<Task> activeTasks = taskService.createTaskQuery()
-                .processInstanceId(processInstance.getId())
-                .list();
-            
-            System.out.println("Active tasks after workflow start: " + activeTasks.size());
-            for (Task task : activeTasks) {
-                System.out.println("   - Task: " + task.getName() + " (ID: " + task.getId() + ")");
-                System.out.println("     Assignee: " + task.getAssignee());
-                
-                // Get candidate groups properly
-                List<IdentityLink> identityLinks = taskService.getIdentityLinksForTask(task.getId());
-                List<String> candidateGroups = identityLinks.stream()
-                    .filter(link -> "candidate".equals(link.getType()) && link.getGroupId() != null)
-                    .map(IdentityLink::getGroupId)
-                    .collect(Collectors.toList());
-                System.out.println("     Candidate Groups: " + candidateGroups);
-            }
-            
         } catch (Exception e) {
-            System.err.println("Error starting workflow: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error starting workflow for case {}", caseEntity.getCaseNumber(), e);
             throw new RuntimeException("Failed to start workflow process: " + e.getMessage(), e);
         }
         
-        System.out.println("CASE CREATION AND WORKFLOW COMPLETED SUCCESSFULLY!");
-        return convertToCaseWithAllegationsResponse(savedCase, savedAllegations);
+        log.debug("Started Flowable workflow process: {}", processInstance.getId());
+        
+        // Stamp the process instance on every row before the single write below
+        // Note: Converting UUID to hash for Long field, but keeping full ID in logs
+        caseEntity.setWorkflowInstanceKey((long) processInstance.getId().hashCode());
+        for (WorkItemEntity workItem : workItems) {
+            workItem.setFlowableProcessInstanceId(processInstance.getId());
+        }
+        for (Allegation allegation : allegations) {
+            allegation.setFlowablePlanItemId(processInstance.getId());
+        }
+        
+        // Persist (not merge) the new rows: with assigned ids save() would SELECT each one first
+        entityManager.persist(caseEntity);
+        workItems.forEach(entityManager::persist);
+        allegations.forEach(entityManager::persist);
+        
+        return new CaseCreation(caseEntity, allegations);
+    }
+    
+    /**
+     * Send pending case inserts as JDBC batches (hibernate.jdbc.batch_size / order_inserts)
+     */
+    private void flushCaseRecords() {
+        try {
+            entityManager.flush();
+        } catch (Exception e) {
+            log.error("Error saving case records: {}", e.getMessage());
+            throw new RuntimeException("Failed to save case records: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Evaluate the allegation classification DMN, falling back to HR defaults when it has no match
+     */
+    private Map<String, Object> evaluateClassification(String allegationType, String severity) {
+        Map<String, Object> dmnResult = dmnService.callAllegationClassificationDMN(allegationType, severity);
+        if (dmnResult != null) {
+            return dmnResult;
+        }
+        
+        // Fallback to default values if DMN returns null
+        log.debug("DMN returned null for allegationType: {}, severity: {}; using HR defaults", allegationType, severity);
+        Map<String, Object> fallback = new HashMap<>();
+        fallback.put("classification", "HR");
+        fallback.put("assignedGroup", "HR_GROUP");
+        fallback.put("priority", "MEDIUM");
+        return fallback;
     }
     
     // @PreAuthorize("hasPermission(#request.taskId, 'task', 'complete')")
@@ -301,18 +292,9 @@ public class CaseWorkflowService {
             variables.put("decision", request.getDecision());
         }
         
-        // Complete the task
+        // Complete the task; QueueTaskEventListener marks the queue task completed
         taskService.complete(request.getTaskId(), variables);
         
-        // Update queue task status
-        try {
-            queueTaskService.completeTask(request.getTaskId());
-            System.out.println("Successfully marked queue task as completed: " + request.getTaskId());
-        } catch (Exception e) {
-            System.err.println("Warning: Failed to update queue task completion: " + e.getMessage());
-            // Don't fail the entire operation for queue update issues
-        }
-        
         // Return task information
         return convertToWorkflowTaskResponse(task);
     }
@@ -378,28 +360,77 @@ public class CaseWorkflowService {
     }
     
     public List<CaseWithAllegationsResponse> getAllCases(int page, int size, String status) {
-        // For now, return all cases (pagination can be added later with PageRequest)
-        List<Case> cases = caseRepository.findAll();
-        
-        // Filter by status if provided
+        return getCasesPage(page, size, status, null).getCases();
+    }
+    
+    /**
+     * One page of cases, newest first, with status filtering and paging done in SQL.
+     * With a cursor (the nextCursor of the previous page) the page is read by keyset on
+     * (created_at, case_id) and page is ignored; without one, page is applied as an offset.
+     * Allegations for the whole page are loaded with a single IN query.
+     */
+    @Transactional(readOnly = true)
+    public CasePageResponse getCasesPage(int page, int size, String status, String cursor) {
+        CaseStatus caseStatus = null;
         if (status != null && !status.trim().isEmpty()) {
             try {
-                CaseStatus caseStatus = CaseStatus.valueOf(status.toUpperCase());
-                cases = cases.stream()
-                    .filter(c -> c.getStatus() == caseStatus)
-                    .collect(Collectors.toList());
+                caseStatus = CaseStatus.valueOf(status.toUpperCase());
             } catch (IllegalArgumentException e) {
-                // Invalid status, return empty list or all cases
-                System.out.println("Invalid status filter: " + status);
+                // Invalid status, return all cases
+                log.debug("Invalid status filter: {}", status);
             }
         }
         
-        return cases.stream()
-            .map(caseEntity -> {
-                List<Allegation> allegations = allegationRepository.findByCaseId(caseEntity.getCaseNumber());
-                return convertToCaseWithAllegationsResponse(caseEntity, allegations);
-            })
+        List<Case> cases;
+        if (cursor != null && !cursor.isBlank()) {
+            CaseCursor after = CaseCursor.decode(cursor);
+            cases = caseRepository.findCasesPageAfter(caseStatus, after.createdAt(), after.caseId(), PageRequest.of(0, size));
+        } else {
+            cases = caseRepository.findCasesPage(caseStatus, PageRequest.of(page, size));
+        }
+        
+        Map<String, List<Allegation>> allegationsByCase = cases.isEmpty()
+            ? Map.of()
+            : allegationRepository.findByCaseIdIn(cases.stream().map(Case::getCaseNumber).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(Allegation::getCaseId));
+        
+        List<CaseWithAllegationsResponse> responses = cases.stream()
+            .map(caseEntity -> convertToCaseWithAllegationsResponse(caseEntity,
+                allegationsByCase.getOrDefault(caseEntity.getCaseNumber(), List.of())))
             .collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (cases.size() == size) {
+            Case last = cases.get(cases.size() - 1);
+            nextCursor = new CaseCursor(last.getCreatedAt(), last.getCaseId()).encode();
+        }
+        
+        return CasePageResponse.builder()
+            .cases(responses)
+            .nextCursor(nextCursor)
+            .build();
+    }
+    
+    /**
+     * Position of the last case on a page, encoded as URL-safe base64 of "createdAt|caseId"
+     */
+    private record CaseCursor(LocalDateTime createdAt, String caseId) {
+        
+        String encode() {
+            String raw = createdAt + "|" + caseId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static CaseCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new CaseCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
     }
     
     /**
@@ -464,14 +495,6 @@ public class CaseWorkflowService {
                         taskService.complete(task.getId(), variables);
                         System.out.println("✅ Completed intake task: " + task.getName());
                         
-                        // Update queue task status if exists
-                        try {
-                            queueTaskService.completeTask(task.getId());
-                            System.out.println("✅ Updated queue task status");
-                        } catch (Exception e) {
-                            System.err.println("⚠️ Warning: Failed to update queue task: " + e.getMessage());
-                        }
-                        
                         break;
                     }
                 }
@@ -516,10 +539,7 @@ public class CaseWorkflowService {
     }
     
     private String generateCaseNumber() {
-        String prefix = "OC" + java.time.Year.now() + "-";
-        // Generate 6-digit sequential number
-        Long count = caseRepository.count() + 1;
-        return prefix + String.format("%06d", count);
+        return idAllocationService.nextCaseNumber();
     }
     
     private CaseWithAllegationsResponse convertToCaseWithAllegationsResponse(Case caseEntity, List<Allegation> allegations) {
@@ -1,5 +1,10 @@
 package com.workflow.cmsflowable.service;
 
+import com.workflow.cmsflowable.dto.response.QueueTaskResponse;
+import com.workflow.cmsflowable.model.QueueRoutingTable;
+import com.workflow.cmsflowable.security.CerbosBatchAuthorizer;
+import com.workflow.cmsflowable.security.CerbosCallGuard;
+import com.workflow.cmsflowable.security.CerbosDecisionCache;
 import com.workflow.cmsflowable.security.CerbosPermissionEvaluator;
 import com.workflow.cmsflowable.security.UserPrincipal;
 import dev.cerbos.sdk.CerbosBlockingClient;
@@ -15,8 +20,12 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +43,30 @@ public class CerbosWorkflowIntegration {
     
     @Autowired
     private CerbosPermissionEvaluator permissionEvaluator;
+    
+    @Autowired
+    private CerbosBatchAuthorizer batchAuthorizer;
+    
+    @Autowired
+    private CerbosDecisionCache decisionCache;
+    
+    @Autowired
+    private CerbosCallGuard cerbosCallGuard;
+    
+    @Autowired
+    private WorkflowMetadataService workflowMetadataService;
+
+    // Process variables Cerbos policies read; only these are loaded for a check
+    private static final List<String> AUTHORIZATION_VARIABLES = List.of("caseId", "classification", "priority");
+
+    // Candidate group -> role whose members work that group's tasks
+    private static final Map<String, String> CANDIDATE_GROUP_ROLES = Map.of(
+        "HR_GROUP", "HR_SPECIALIST",
+        "LEGAL_GROUP", "LEGAL_COUNSEL",
+        "CSIS_GROUP", "SECURITY_ANALYST",
+        "INTAKE_ANALYST_GROUP", "INTAKE_ANALYST",
+        "INVESTIGATOR_GROUP", "INVESTIGATOR",
+        "DIRECTOR_GROUP", "DIRECTOR");
 
     /**
      * Check if the current user can claim a workflow task based on Cerbos policies
@@ -87,23 +120,33 @@ public class CerbosWorkflowIntegration {
                 .map(auth -> auth.getAuthority().replace("ROLE_", ""))
                 .collect(Collectors.toList());
 
-            Principal principal = Principal.newInstance(authentication.getName())
-                .withRoles(roles.toArray(new String[0]))
-                .withAttribute("userId", AttributeValue.stringValue(String.valueOf(userPrincipal.getUserId())))
-                .withAttribute("email", AttributeValue.stringValue(userPrincipal.getEmail()));
+            // Build resource attributes from task
+            Map<String, Object> taskAttributes = buildTaskAttributes(task, fetchAuthorizationVariables(task));
 
-            // Build resource from task
-            Resource resource = buildTaskResource(task);
+            // Reuse a recent decision for the same principal, roles and task state
+            CerbosDecisionCache.DecisionKey cacheKey = decisionCache.key(authentication.getName(), roles,
+                "workflow_task", task.getId(), taskAttributes, action);
+            boolean allowed = decisionCache.isAllowed(cacheKey, () -> {
+                Principal principal = Principal.newInstance(authentication.getName())
+                    .withRoles(roles.toArray(new String[0]))
+                    .withAttribute("userId", AttributeValue.stringValue(String.valueOf(userPrincipal.getUserId())))
+                    .withAttribute("email", AttributeValue.stringValue(userPrincipal.getEmail()));
 
-            // Check permission
-            CheckResult result = cerbosClient.check(principal, resource, action);
-            boolean allowed = result.isAllowed(action);
+                // Check permission (deadline, bulkhead and circuit breaker apply)
+                CheckResult result = cerbosCallGuard.check(principal, buildTaskResource(task.getId(), taskAttributes), action);
+                return result.isAllowed(action);
+            });
 
             log.debug("Cerbos task permission check - User: {}, Task: {}, Action: {}, CandidateGroup: {}, Allowed: {}", 
                 authentication.getName(), task.getId(), action, task.getCategory(), allowed);
 
             return allowed;
 
+        } catch (CerbosCallGuard.CerbosUnavailableException e) {
+            log.debug("Cerbos unavailable for user {} on task {}, using fallback: {}", 
+                authentication.getName(), task.getId(), e.getMessage());
+            return checkTaskPermissionFallback(task, action, authentication);
+
         } catch (Exception e) {
             log.error("Error checking Cerbos task permission for user {} on task {}: {}", 
                 authentication.getName(), task.getId(), e.getMessage());
@@ -114,42 +157,58 @@ public class CerbosWorkflowIntegration {
     /**
      * Build Cerbos resource from Flowable task
      */
-    private Resource buildTaskResource(Task task) {
-        Resource resource = Resource.newInstance("workflow_task", task.getId());
+    private Resource buildTaskResource(String taskId, Map<String, Object> taskAttributes) {
+        Resource resource = Resource.newInstance("workflow_task", taskId);
+        
+        for (Map.Entry<String, Object> entry : taskAttributes.entrySet()) {
+            resource = resource.withAttribute(entry.getKey(), AttributeValue.stringValue(entry.getValue().toString()));
+        }
+
+        return resource;
+    }
+
+    /**
+     * Only the variables used as Cerbos attributes, in one query, instead of every variable
+     * of the process (including the full allegations list)
+     */
+    private Map<String, Object> fetchAuthorizationVariables(Task task) {
+        return taskService.getVariables(task.getId(), AUTHORIZATION_VARIABLES);
+    }
+
+    /**
+     * Cerbos attributes of a Flowable task: task fields plus the case variables policies use
+     */
+    private Map<String, Object> buildTaskAttributes(Task task, Map<String, Object> processVariables) {
+        Map<String, Object> attributes = new HashMap<>();
         
         // Add task attributes
         if (task.getCategory() != null) {
-            resource = resource.withAttribute("candidateGroup", AttributeValue.stringValue(task.getCategory()));
+            attributes.put("candidateGroup", task.getCategory());
         }
         
         if (task.getName() != null) {
-            resource = resource.withAttribute("taskName", AttributeValue.stringValue(task.getName()));
+            attributes.put("taskName", task.getName());
         }
         
         if (task.getProcessInstanceId() != null) {
-            resource = resource.withAttribute("processInstanceId", AttributeValue.stringValue(task.getProcessInstanceId()));
+            attributes.put("processInstanceId", task.getProcessInstanceId());
         }
         
         if (task.getAssignee() != null) {
-            resource = resource.withAttribute("assignee", AttributeValue.stringValue(task.getAssignee()));
+            attributes.put("assignee", task.getAssignee());
         }
 
         // Add process variables as resource attributes
-        Map<String, Object> processVariables = taskService.getVariables(task.getId());
         if (processVariables != null) {
             // Add relevant case information
-            if (processVariables.containsKey("caseId")) {
-                resource = resource.withAttribute("caseId", AttributeValue.stringValue(processVariables.get("caseId").toString()));
-            }
-            if (processVariables.containsKey("classification")) {
-                resource = resource.withAttribute("classification", AttributeValue.stringValue(processVariables.get("classification").toString()));
-            }
-            if (processVariables.containsKey("priority")) {
-                resource = resource.withAttribute("priority", AttributeValue.stringValue(processVariables.get("priority").toString()));
+            for (String name : AUTHORIZATION_VARIABLES) {
+                if (processVariables.get(name) != null) {
+                    attributes.put(name, processVariables.get(name));
+                }
             }
         }
 
-        return resource;
+        return attributes;
     }
 
     /**
@@ -170,23 +229,12 @@ public class CerbosWorkflowIntegration {
         String candidateGroup = task.getCategory(); // In Flowable, category often holds candidate group
         
         if (candidateGroup != null) {
-            switch (candidateGroup) {
-                case "HR_GROUP":
-                    return roles.contains("HR_SPECIALIST");
-                case "LEGAL_GROUP":
-                    return roles.contains("LEGAL_COUNSEL");
-                case "CSIS_GROUP":
-                    return roles.contains("SECURITY_ANALYST");
-                case "INTAKE_ANALYST_GROUP":
-                    return roles.contains("INTAKE_ANALYST");
-                case "INVESTIGATOR_GROUP":
-                    return roles.contains("INVESTIGATOR");
-                case "DIRECTOR_GROUP":
-                    return roles.contains("DIRECTOR");
-                default:
-                    log.debug("Unknown candidate group: {}", candidateGroup);
-                    return false;
+            String role = CANDIDATE_GROUP_ROLES.get(candidateGroup);
+            if (role == null) {
+                log.debug("Unknown candidate group: {}", candidateGroup);
+                return false;
             }
+            return roles.contains(role);
         }
 
         // If no candidate group, check if user is assignee
@@ -198,7 +246,7 @@ public class CerbosWorkflowIntegration {
     }
 
     /**
-     * Filter tasks based on Cerbos permissions
+     * Filter tasks based on Cerbos permissions, with one CheckResources call per batch of tasks
      */
     public List<Task> filterTasksByPermissions(List<Task> tasks, String action) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -206,9 +254,83 @@ public class CerbosWorkflowIntegration {
             return List.of();
         }
 
-        return tasks.stream()
-            .filter(task -> canPerformTaskAction(task, action, authentication))
-            .collect(Collectors.toList());
+        // Tasks of the same process instance share its variables, so load them once per instance
+        Map<String, Map<String, Object>> variablesByProcessInstance = new HashMap<>();
+        return batchAuthorizer.filter(authentication, "workflow_task", action, tasks,
+            Task::getId,
+            task -> buildTaskAttributes(task, task.getProcessInstanceId() != null
+                ? variablesByProcessInstance.computeIfAbsent(task.getProcessInstanceId(), id -> fetchAuthorizationVariables(task))
+                : fetchAuthorizationVariables(task)),
+            task -> checkTaskPermissionFallback(task, action, authentication));
+    }
+
+    /**
+     * Filter queue tasks based on Cerbos permissions, with one CheckResources call per batch of tasks.
+     * Membership of a queue comes from the workflow's queue routing: the candidate groups routed to the
+     * task's queue, and their roles. Without Cerbos the list is returned as is (the queue endpoints were
+     * not authorized per task before); when the check fails, members, the assignee and admins keep access.
+     */
+    public List<QueueTaskResponse> filterQueueTasksByPermissions(List<QueueTaskResponse> tasks, String action) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return List.of();
+        }
+
+        return batchAuthorizer.filter(authentication, "workflow_task", action, tasks,
+            QueueTaskResponse::getTaskId,
+            this::buildQueueTaskAttributes,
+            batchAuthorizer.isAvailable()
+                ? task -> checkQueueTaskPermissionFallback(buildQueueTaskAttributes(task), authentication)
+                : task -> true);
+    }
+
+    /**
+     * Fallback for queue tasks while the PDP is unreachable, mirroring the workflow_task policy
+     */
+    private boolean checkQueueTaskPermissionFallback(Map<String, Object> taskAttributes, Authentication authentication) {
+        Set<String> roles = authentication.getAuthorities().stream()
+            .map(auth -> auth.getAuthority().replace("ROLE_", ""))
+            .collect(Collectors.toSet());
+        if (roles.contains("ADMIN") || authentication.getName().equals(taskAttributes.get("assignee"))) {
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        Collection<String> candidateRoles = (Collection<String>) taskAttributes.get("candidateRoles");
+        return candidateRoles.stream().anyMatch(roles::contains);
+    }
+
+    private Map<String, Object> buildQueueTaskAttributes(QueueTaskResponse task) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("queueName", task.getQueueName());
+        attributes.put("taskName", task.getTaskName());
+        attributes.put("processInstanceId", task.getProcessInstanceId());
+        attributes.put("processDefinitionKey", task.getProcessDefinitionKey());
+        attributes.put("assignee", task.getAssignee());
+        attributes.put("status", task.getStatus());
+        attributes.put("priority", task.getPriority());
+        attributes.put("businessKey", task.getBusinessKey());
+        attributes.put("candidateRoles", queueCandidateRoles(task.getProcessDefinitionKey(), task.getQueueName()));
+        return attributes;
+    }
+
+    /**
+     * Candidate groups routed to the queue plus the roles that work them, from the in-memory routing tables
+     */
+    private List<String> queueCandidateRoles(String processDefinitionKey, String queueName) {
+        QueueRoutingTable routing = processDefinitionKey != null ? workflowMetadataService.getQueueRouting(processDefinitionKey) : null;
+        if (routing == null) {
+            return List.of();
+        }
+
+        Set<String> candidateRoles = new TreeSet<>();
+        for (String group : routing.candidateGroupsForQueue(queueName)) {
+            candidateRoles.add(group);
+            if (CANDIDATE_GROUP_ROLES.containsKey(group)) {
+                candidateRoles.add(CANDIDATE_GROUP_ROLES.get(group));
+            }
+        }
+        return List.copyOf(candidateRoles);
     }
 
     /**
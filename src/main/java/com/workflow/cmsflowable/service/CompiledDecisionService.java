@@ -0,0 +1,117 @@
+package com.workflow.cmsflowable.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.dmn.api.DmnDecision;
+import org.flowable.dmn.api.DmnDecisionService;
+import org.flowable.dmn.api.DmnRepositoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Optional in-process evaluation of deployed decision tables that only use string equality
+ * tests (see {@link CompiledDecisionTable}). Tables are compiled at startup and again by
+ * {@link #recompile()}, which {@link FlowableDeploymentService} calls after DMN deployments,
+ * and checked against the DMN engine for every combination of tested values then. A decision
+ * without a verified compiled table is evaluated by the engine; requests never compile.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompiledDecisionService {
+    
+    private static final int MAX_VERIFICATION_COMBINATIONS = 1000;
+    
+    private final DmnRepositoryService dmnRepositoryService;
+    private final DmnDecisionService dmnDecisionService;
+    
+    @Value("${cms.dmn.compiled.enabled:false}")
+    private boolean enabled;
+    
+    // decisionKey -> verified compiled table of the latest version; replaced wholesale on recompile
+    private volatile Map<String, CompiledDecisionTable> compiled = Map.of();
+    
+    /**
+     * Result of the compiled decision, or empty when compiled evaluation is disabled or not
+     * available for this decision. A present value wrapping null means no rule matched.
+     */
+    public Optional<Optional<Map<String, Object>>> evaluate(String decisionKey, Map<String, Object> inputs) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(compiled.get(decisionKey))
+                .map(table -> Optional.ofNullable(table.evaluate(inputs)));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void compileOnStartup() {
+        recompile();
+    }
+    
+    /**
+     * Compile and verify the latest version of every deployed decision, then swap them in
+     */
+    public synchronized void recompile() {
+        if (!enabled) {
+            return;
+        }
+        
+        // Tables of superseded versions must not serve while the new ones are verified
+        compiled = Map.of();
+        
+        Map<String, CompiledDecisionTable> tables = new HashMap<>();
+        for (DmnDecision deployed : dmnRepositoryService.createDecisionQuery().latestVersion().list()) {
+            compile(deployed).ifPresent(table -> tables.put(deployed.getKey(), table));
+        }
+        compiled = Map.copyOf(tables);
+        log.info("Compiled {} decision tables for in-process evaluation", tables.size());
+    }
+    
+    private Optional<CompiledDecisionTable> compile(DmnDecision deployed) {
+        String decisionKey = deployed.getKey();
+        try {
+            CompiledDecisionTable table = CompiledDecisionTable.compile(
+                    dmnRepositoryService.getDmnDefinition(deployed.getId()), decisionKey);
+            if (!matchesEngine(decisionKey, table)) {
+                return Optional.empty();
+            }
+            
+            log.info("Compiled decision {} version {} for in-process evaluation", decisionKey, deployed.getVersion());
+            return Optional.of(table);
+            
+        } catch (Exception e) {
+            log.info("Decision {} not compiled, using the DMN engine: {}", decisionKey, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    private boolean matchesEngine(String decisionKey, CompiledDecisionTable table) {
+        Optional<List<Map<String, Object>>> combinations = table.inputCombinations(MAX_VERIFICATION_COMBINATIONS);
+        if (combinations.isEmpty()) {
+            log.info("Decision {} has too many input combinations to verify; using the DMN engine", decisionKey);
+            return false;
+        }
+        
+        for (Map<String, Object> inputs : combinations.get()) {
+            Map<String, Object> expected = dmnDecisionService.createExecuteDecisionBuilder()
+                    .decisionKey(decisionKey)
+                    .variables(inputs)
+                    .executeWithSingleResult();
+            Map<String, Object> actual = table.evaluate(inputs);
+            if (!Objects.equals(normalize(expected), normalize(actual))) {
+                log.warn("Compiled decision {} disagrees with the DMN engine for {}: {} vs {}; using the DMN engine",
+                        decisionKey, inputs, actual, expected);
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static Map<String, Object> normalize(Map<String, Object> result) {
+        return result == null || result.isEmpty() ? null : new HashMap<>(result);
+    }
+}
@@ -0,0 +1,226 @@
+package com.workflow.cmsflowable.service;
+
+import org.flowable.dmn.model.Decision;
+import org.flowable.dmn.model.DecisionRule;
+import org.flowable.dmn.model.DecisionTable;
+import org.flowable.dmn.model.DmnDefinition;
+import org.flowable.dmn.model.HitPolicy;
+import org.flowable.dmn.model.InputClause;
+import org.flowable.dmn.model.OutputClause;
+import org.flowable.dmn.model.RuleInputClauseContainer;
+import org.flowable.dmn.model.RuleOutputClauseContainer;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory form of a DMN decision table restricted to string equality tests: every input is
+ * indexed as value -> bitset of matching rules (plus a bitset of "-" rules), so evaluation is
+ * one map lookup and bitset AND per input. Tables using anything else are rejected by
+ * {@link #compile} and stay on the DMN engine.
+ */
+final class CompiledDecisionTable {
+    
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Pattern CASE_FUNCTION = Pattern.compile("(upper|lower)\\(\\s*([A-Za-z_][A-Za-z0-9_]*)\\s*\\)");
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final String UNMATCHED_VALUE = "__UNMATCHED__";
+    
+    private enum Transform { NONE, UPPER, LOWER }
+    
+    private record CompiledInput(String variable, Transform transform, Map<String, BitSet> rulesByValue, BitSet anyValueRules) {}
+    
+    private final List<CompiledInput> inputs;
+    private final List<Map<String, Object>> ruleOutputs;
+    private final int ruleCount;
+    
+    private CompiledDecisionTable(List<CompiledInput> inputs, List<Map<String, Object>> ruleOutputs) {
+        this.inputs = inputs;
+        this.ruleOutputs = ruleOutputs;
+        this.ruleCount = ruleOutputs.size();
+    }
+    
+    /**
+     * Compile the decision table of the decision with the given key
+     *
+     * @throws IllegalArgumentException if there is no such decision table or it cannot be compiled
+     */
+    static CompiledDecisionTable compile(DmnDefinition definition, String decisionKey) {
+        DecisionTable decisionTable = definition.getDecisions().stream()
+                .filter(decision -> decisionKey.equals(decision.getId()))
+                .map(Decision::getExpression)
+                .filter(DecisionTable.class::isInstance)
+                .map(DecisionTable.class::cast)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Decision is not a decision table"));
+        return compile(decisionTable);
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the table uses a construct this evaluator does not support
+     */
+    static CompiledDecisionTable compile(DecisionTable table) {
+        HitPolicy hitPolicy = table.getHitPolicy();
+        if (hitPolicy != null && hitPolicy != HitPolicy.FIRST && hitPolicy != HitPolicy.UNIQUE && hitPolicy != HitPolicy.ANY) {
+            throw new IllegalArgumentException("Unsupported hit policy " + hitPolicy);
+        }
+        
+        List<DecisionRule> rules = table.getRules();
+        List<CompiledInput> inputs = new ArrayList<>();
+        for (InputClause inputClause : table.getInputs()) {
+            inputs.add(compileInput(inputClause, rules));
+        }
+        
+        List<Map<String, Object>> ruleOutputs = new ArrayList<>(rules.size());
+        for (DecisionRule rule : rules) {
+            Map<String, Object> outputs = new LinkedHashMap<>();
+            for (RuleOutputClauseContainer container : rule.getOutputEntries()) {
+                OutputClause outputClause = container.getOutputClause();
+                String text = container.getOutputEntry() != null ? container.getOutputEntry().getText() : null;
+                outputs.put(outputClause.getName(), parseOutput(text));
+            }
+            ruleOutputs.add(Collections.unmodifiableMap(outputs));
+        }
+        
+        return new CompiledDecisionTable(List.copyOf(inputs), List.copyOf(ruleOutputs));
+    }
+    
+    /**
+     * Outputs of the first matching rule, or null when no rule matches
+     */
+    Map<String, Object> evaluate(Map<String, Object> variables) {
+        BitSet candidates = new BitSet(ruleCount);
+        candidates.set(0, ruleCount);
+        
+        for (CompiledInput input : inputs) {
+            Object raw = variables.get(input.variable());
+            String value = raw != null ? applyTransform(raw.toString(), input.transform()) : null;
+            
+            BitSet matching = (BitSet) input.anyValueRules().clone();
+            BitSet exact = value != null ? input.rulesByValue().get(value) : null;
+            if (exact != null) {
+                matching.or(exact);
+            }
+            candidates.and(matching);
+            if (candidates.isEmpty()) {
+                return null;
+            }
+        }
+        
+        return ruleOutputs.get(candidates.nextSetBit(0));
+    }
+    
+    /**
+     * Every combination of the values that select a rule on some input, their lower-case forms and one
+     * unmatched value per input, or empty when there are more than maxCombinations. Used to check this
+     * table against the DMN engine.
+     */
+    Optional<List<Map<String, Object>>> inputCombinations(int maxCombinations) {
+        Map<String, Set<String>> valuesByVariable = new LinkedHashMap<>();
+        for (CompiledInput input : inputs) {
+            Set<String> values = valuesByVariable.computeIfAbsent(input.variable(), variable -> new LinkedHashSet<>());
+            for (String value : input.rulesByValue().keySet()) {
+                values.add(value);
+                values.add(value.toLowerCase(Locale.ROOT));
+            }
+            values.add(UNMATCHED_VALUE);
+        }
+        
+        List<Map<String, Object>> combinations = new ArrayList<>();
+        combinations.add(new HashMap<>());
+        for (Map.Entry<String, Set<String>> variable : valuesByVariable.entrySet()) {
+            List<Map<String, Object>> expanded = new ArrayList<>();
+            for (Map<String, Object> combination : combinations) {
+                for (String value : variable.getValue()) {
+                    Map<String, Object> next = new HashMap<>(combination);
+                    next.put(variable.getKey(), value);
+                    expanded.add(next);
+                }
+            }
+            combinations = expanded;
+            if (combinations.size() > maxCombinations) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(combinations);
+    }
+    
+    private static CompiledInput compileInput(InputClause inputClause, List<DecisionRule> rules) {
+        String expression = inputClause.getInputExpression() != null ? inputClause.getInputExpression().getText() : null;
+        if (expression == null) {
+            throw new IllegalArgumentException("Input " + inputClause.getId() + " has no expression");
+        }
+        expression = expression.trim();
+        
+        String variable;
+        Transform transform;
+        Matcher caseFunction = CASE_FUNCTION.matcher(expression);
+        if (caseFunction.matches()) {
+            variable = caseFunction.group(2);
+            transform = "upper".equals(caseFunction.group(1)) ? Transform.UPPER : Transform.LOWER;
+        } else if (IDENTIFIER.matcher(expression).matches()) {
+            variable = expression;
+            transform = Transform.NONE;
+        } else {
+            throw new IllegalArgumentException("Unsupported input expression '" + expression + "'");
+        }
+        
+        Map<String, BitSet> rulesByValue = new HashMap<>();
+        BitSet anyValueRules = new BitSet(rules.size());
+        for (int ruleIndex = 0; ruleIndex < rules.size(); ruleIndex++) {
+            String test = inputEntryText(rules.get(ruleIndex), inputClause);
+            if (test == null || test.isBlank() || "-".equals(test.trim())) {
+                anyValueRules.set(ruleIndex);
+                continue;
+            }
+            for (String value : parseStringList(test)) {
+                rulesByValue.computeIfAbsent(value, key -> new BitSet(rules.size())).set(ruleIndex);
+            }
+        }
+        
+        return new CompiledInput(variable, transform, Map.copyOf(rulesByValue), anyValueRules);
+    }
+    
+    private static String inputEntryText(DecisionRule rule, InputClause inputClause) {
+        for (RuleInputClauseContainer container : rule.getInputEntries()) {
+            if (container.getInputClause() == inputClause
+                    || (container.getInputClause() != null && Objects.equals(container.getInputClause().getId(), inputClause.getId()))) {
+                return container.getInputEntry() != null ? container.getInputEntry().getText() : null;
+            }
+        }
+        return null;
+    }
+    
+    // "A", "B", ... -> [A, B]; anything else is rejected
+    private static List<String> parseStringList(String test) {
+        List<String> values = new ArrayList<>();
+        for (String part : test.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)")) {
+            Matcher literal = STRING_LITERAL.matcher(part.trim());
+            if (!literal.matches()) {
+                throw new IllegalArgumentException("Unsupported input entry '" + test + "'");
+            }
+            values.add(literal.group(1).replace("\\\"", "\""));
+        }
+        return values;
+    }
+    
+    private static Object parseOutput(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        Matcher literal = STRING_LITERAL.matcher(text.trim());
+        if (!literal.matches()) {
+            throw new IllegalArgumentException("Unsupported output entry '" + text + "'");
+        }
+        return literal.group(1).replace("\\\"", "\"");
+    }
+    
+    private static String applyTransform(String value, Transform transform) {
+        return switch (transform) {
+            case UPPER -> value.toUpperCase(Locale.ROOT);
+            case LOWER -> value.toLowerCase(Locale.ROOT);
+            case NONE -> value;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.workflow.cmsflowable.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.dmn.api.DmnDecision;
+import org.flowable.dmn.api.DmnRepositoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of single-result DMN decisions keyed by decision key, deployed decision
+ * version and input values. Deploying a new decision version makes older entries unreachable;
+ * {@link #invalidateAll()} is called by {@link FlowableDeploymentService} after DMN deployments.
+ * "No match" results are cached as well.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DecisionResultCache {
+    
+    private static final Map<String, Object> NO_MATCH = Collections.emptyMap();
+    
+    private final DmnRepositoryService dmnRepositoryService;
+    
+    @Value("${cms.dmn.cache-size:1000}")
+    private int maxCacheSize;
+    
+    // decisionKey -> latest deployed version, looked up once per key until invalidated
+    private final ConcurrentMap<String, Integer> decisionVersions = new ConcurrentHashMap<>();
+    
+    private final Map<String, Map<String, Object>> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+                    return size() > maxCacheSize;
+                }
+            });
+    
+    /**
+     * Cached result of the decision for these inputs, calling the evaluator on a miss.
+     * Returns an unmodifiable map, or null when the decision has no matching rule.
+     */
+    public Map<String, Object> evaluate(String decisionKey, Map<String, Object> inputs,
+                                        Supplier<Map<String, Object>> evaluator) {
+        String cacheKey = decisionKey + ":" + decisionVersions.computeIfAbsent(decisionKey, this::latestVersion)
+                + ":" + new TreeMap<>(inputs);
+        
+        Map<String, Object> cached = cache.get(cacheKey);
+        if (cached == null) {
+            Map<String, Object> result = evaluator.get();
+            cached = result != null ? Collections.unmodifiableMap(new HashMap<>(result)) : NO_MATCH;
+            cache.put(cacheKey, cached);
+            log.debug("Cached decision {} for inputs {}", decisionKey, inputs);
+        }
+        return cached == NO_MATCH ? null : cached;
+    }
+    
+    /**
+     * Forget all cached results and deployed versions
+     */
+    public void invalidateAll() {
+        decisionVersions.clear();
+        cache.clear();
+        log.info("Decision result cache invalidated");
+    }
+    
+    private Integer latestVersion(String decisionKey) {
+        DmnDecision decision = dmnRepositoryService.createDecisionQuery()
+                .decisionKey(decisionKey)
+                .latestVersion()
+                .singleResult();
+        return decision != null ? decision.getVersion() : 0;
+    }
+}
@@ -15,9 +15,17 @@ import java.util.stream.Collectors;
 @Service("determineDepartmentRoutingService")
 public class DetermineDepartmentRoutingService implements JavaDelegate {
 
+    private static final String ALLEGATION_CLASSIFICATION_DECISION = "allegation-classification";
+
     @Autowired
     private DmnDecisionService dmnDecisionService;
 
+    @Autowired
+    private DecisionResultCache decisionResultCache;
+
+    @Autowired
+    private CompiledDecisionService compiledDecisionService;
+
     @Override
     public void execute(DelegateExecution execution) {
         log.info("Starting department routing determination for process: {}", execution.getProcessInstanceId());
@@ -46,8 +54,10 @@ public class DetermineDepartmentRoutingService implements JavaDelegate {
                 
                 log.debug("Processing allegation: type={}, severity={}", allegationType, severity);
                 
-                // Call DMN decision table for each allegation
-                Map<String, Object> dmnResult = callAllegationClassificationDMN(allegationType, severity);
+                // Reuse the classification made at case creation; otherwise call the DMN decision table
+                Map<String, Object> dmnResult = allegation.get("classification") != null && allegation.get("assignedGroup") != null
+                        ? allegation
+                        : callAllegationClassificationDMN(allegationType, severity);
                 
                 if (dmnResult != null) {
                     String classification = (String) dmnResult.get("classification");
@@ -111,46 +121,33 @@ public class DetermineDepartmentRoutingService implements JavaDelegate {
 
     public Map<String, Object> callAllegationClassificationDMN(String allegationType, String severity) {
         try {
-            System.out.println("=== DMN DEBUG START ===");
-            System.out.println("Calling DMN with allegationType: '" + allegationType + "', severity: '" + severity + "'");
-            log.debug("Calling DMN with allegationType: {}, severity: {}", allegationType, severity);
-            
             // Build DMN execution request
             Map<String, Object> inputVariables = new HashMap<>();
             inputVariables.put("allegationType", allegationType);
             inputVariables.put("severity", severity != null ? severity.toUpperCase() : "MEDIUM");
             
-            System.out.println("DMN Input Variables: " + inputVariables);
-            
-            // Execute DMN decision
-            Map<String, Object> result = dmnDecisionService.createExecuteDecisionBuilder()
-                .decisionKey("allegation-classification")  // This should match the DMN decision ID
-                .variables(inputVariables)
-                .executeWithSingleResult();
-            
-            System.out.println("DMN Raw Result: " + result);
+            // The outcome depends only on the inputs, so repeated combinations are served from the cache
+            Map<String, Object> result = decisionResultCache.evaluate(ALLEGATION_CLASSIFICATION_DECISION, inputVariables,
+                () -> compiledDecisionService.evaluate(ALLEGATION_CLASSIFICATION_DECISION, inputVariables)
+                    .map(compiled -> compiled.orElse(null))
+                    .orElseGet(() -> dmnDecisionService.createExecuteDecisionBuilder()
+                        .decisionKey(ALLEGATION_CLASSIFICATION_DECISION)
+                        .variables(inputVariables)
+                        .executeWithSingleResult()));
             
             if (result != null) {
-                System.out.println("DMN SUCCESS - Classification: " + result.get("classification") + 
-                                 ", AssignedGroup: " + result.get("assignedGroup") + 
-                                 ", Priority: " + result.get("priority"));
                 log.debug("DMN decision result: {}", result);
                 return result;
             } else {
-                System.out.println("DMN RETURNED NULL - Using fallback for allegationType: '" + allegationType + "', severity: '" + severity + "'");
                 log.warn("DMN decision returned no results for allegationType: {}, severity: {}", 
                         allegationType, severity);
                 return null;
             }
             
         } catch (Exception e) {
-            System.out.println("DMN ERROR: " + e.getMessage());
-            e.printStackTrace();
             log.error("Error calling DMN decision for allegationType: {}, severity: {}", 
                      allegationType, severity, e);
             return null;
-        } finally {
-            System.out.println("=== DMN DEBUG END ===");
         }
     }
 
@@ -11,7 +11,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -128,24 +127,15 @@ public class EnhancedCaseWorkflowService {
         if (preferredDepartment != null) {
             String preferredQueue = DEPARTMENT_TO_QUEUE.get(preferredDepartment.toUpperCase());
             if (preferredQueue != null && accessibleQueues.contains(preferredQueue)) {
-                QueueTaskResponse task = queueTaskService.getNextTaskFromQueue(preferredQueue);
+                QueueTaskResponse task = queueTaskService.claimNextTask(List.of(preferredQueue), username);
                 if (task != null) {
-                    return queueTaskService.claimTask(task.getTaskId(), username);
+                    return task;
                 }
             }
         }
         
-        // Try all accessible queues in priority order
-        List<String> prioritizedQueues = prioritizeQueues(accessibleQueues);
-        
-        for (String queueName : prioritizedQueues) {
-            QueueTaskResponse task = queueTaskService.getNextTaskFromQueue(queueName);
-            if (task != null) {
-                return queueTaskService.claimTask(task.getTaskId(), username);
-            }
-        }
-        
-        return null; // No tasks available
+        // Atomically claim the highest priority task across all accessible queues
+        return queueTaskService.claimNextTask(accessibleQueues, username);
     }
     
     /**
@@ -265,27 +255,6 @@ public class EnhancedCaseWorkflowService {
         return "HR_SPECIALIST"; // Default fallback
     }
     
-    /**
-     * Prioritize queues based on business rules
-     */
-    private List<String> prioritizeQueues(Set<String> queues) {
-        return queues.stream()
-                .sorted((q1, q2) -> {
-                    // Priority order: director > investigation > csis > legal > hr
-                    return getQueuePriority(q2) - getQueuePriority(q1);
-                })
-                .collect(Collectors.toList());
-    }
-    
-    private int getQueuePriority(String queueName) {
-        if (queueName.contains("director")) return 5;
-        if (queueName.contains("investigation")) return 4;
-        if (queueName.contains("csis")) return 3;
-        if (queueName.contains("legal")) return 2;
-        if (queueName.contains("hr")) return 1;
-        return 0;
-    }
-    
     /**
      * Determine escalation queue based on current queue
      */
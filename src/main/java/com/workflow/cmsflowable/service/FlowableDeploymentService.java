@@ -37,6 +37,12 @@ public class FlowableDeploymentService {
     private CmmnRepositoryService cmmnRepositoryService;*/
     @Autowired(required = false)
     private DmnRepositoryService dmnRepositoryService;
+
+    @Autowired(required = false)
+    private DecisionResultCache decisionResultCache;
+
+    @Autowired(required = false)
+    private CompiledDecisionService compiledDecisionService;
     /*@Autowired
     private FormRepositoryService formRepositoryService;*/
 
@@ -208,6 +214,14 @@ public class FlowableDeploymentService {
 
             String definitionKey = extractDmnDefinitionKey(resourceName, deployment.getId());
 
+            // Cached decision results may belong to a superseded version
+            if (decisionResultCache != null) {
+                decisionResultCache.invalidateAll();
+            }
+            if (compiledDecisionService != null) {
+                compiledDecisionService.recompile();
+            }
+
             logger.info("Successfully deployed DMN {} (ID: {}) from {}. Definition Key: {}",
                     resourceName, deployment.getId(), resource.getDescription(), definitionKey);
 
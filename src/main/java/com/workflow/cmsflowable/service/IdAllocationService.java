@@ -0,0 +1,141 @@
+package com.workflow.cmsflowable.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Allocates year-prefixed business identifiers (case numbers, work item ids) from one Postgres
+ * sequence per kind and year. Each sequence round-trip reserves a block of values that is then
+ * served from memory, so most allocations never touch the database.
+ * A year's sequence is created on first use, starting after the highest id already issued.
+ */
+@Service
+@Slf4j
+public class IdAllocationService {
+    
+    private enum IdKind {
+        CASE_NUMBER("case_number_seq_", "cases", "case_number", "OC", "%06d"),
+        WORK_ITEM("work_item_id_seq_", "work_items", "work_item_id", "WI-", "%03d");
+        
+        private final String sequencePrefix;
+        private final String table;
+        private final String column;
+        private final String idPrefix;
+        private final String numberFormat;
+        
+        IdKind(String sequencePrefix, String table, String column, String idPrefix, String numberFormat) {
+            this.sequencePrefix = sequencePrefix;
+            this.table = table;
+            this.column = column;
+            this.idPrefix = idPrefix;
+            this.numberFormat = numberFormat;
+        }
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final ConcurrentMap<String, SequenceBlockAllocator> allocators = new ConcurrentHashMap<>();
+    
+    @Value("${cms.database.schema:cms_flowable_workflow}")
+    private String schema;
+    
+    @Value("${cms.id-allocation.block-size:50}")
+    private int blockSize;
+    
+    public IdAllocationService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * Next case number, e.g. OC2025-000042
+     */
+    public String nextCaseNumber() {
+        return nextId(IdKind.CASE_NUMBER);
+    }
+    
+    /**
+     * Next work item id, e.g. WI-2025-042
+     */
+    public String nextWorkItemId() {
+        return nextId(IdKind.WORK_ITEM);
+    }
+    
+    /**
+     * Work item ids for one case; needs at most one round-trip while count <= block size
+     */
+    public List<String> nextWorkItemIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(nextId(IdKind.WORK_ITEM));
+        }
+        return ids;
+    }
+    
+    private String nextId(IdKind kind) {
+        int year = Year.now(ZoneOffset.UTC).getValue();
+        long number = allocators.computeIfAbsent(kind.sequencePrefix + year, name -> createAllocator(kind, year)).next();
+        return kind.idPrefix + year + "-" + String.format(kind.numberFormat, number);
+    }
+    
+    private SequenceBlockAllocator createAllocator(IdKind kind, int year) {
+        String sequenceName = kind.sequencePrefix + year;
+        
+        // Sequence DDL runs in its own transaction so it is visible to other nodes immediately
+        // and is not rolled back with the record that happened to trigger it
+        Long increment;
+        try {
+            increment = requiresNew.execute(status -> ensureSequence(kind, year));
+        } catch (DataAccessException e) {
+            // Another node created the same sequence concurrently; it exists now
+            log.debug("Retrying sequence lookup for {}: {}", sequenceName, e.getMessage());
+            increment = requiresNew.execute(status -> ensureSequence(kind, year));
+        }
+        
+        log.info("Allocating {} ids for {} from {} in blocks of {}", kind, year, sequenceName, increment);
+        return new SequenceBlockAllocator(jdbcTemplate, schema + "." + sequenceName, increment);
+    }
+    
+    private Long ensureSequence(IdKind kind, int year) {
+        String sequenceName = kind.sequencePrefix + year;
+        Long increment = currentIncrement(sequenceName);
+        if (increment != null) {
+            return increment;
+        }
+        
+        // One-time scan for ids issued before the sequence existed
+        String yearPrefix = kind.idPrefix + year + "-";
+        int suffixStart = yearPrefix.length() + 1;
+        Long highest = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(CAST(SUBSTRING(" + kind.column + " FROM " + suffixStart + ") AS BIGINT)), 0) " +
+                "FROM " + schema + "." + kind.table + " " +
+                "WHERE " + kind.column + " LIKE ? AND SUBSTRING(" + kind.column + " FROM " + suffixStart + ") ~ '^[0-9]+$'",
+                Long.class, yearPrefix + "%");
+        
+        // The first nextval returns START WITH, i.e. the top of the first block
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + schema + "." + sequenceName +
+                " INCREMENT BY " + blockSize + " START WITH " + (highest + blockSize));
+        return currentIncrement(sequenceName);
+    }
+    
+    private Long currentIncrement(String sequenceName) {
+        return jdbcTemplate.queryForList(
+                "SELECT increment_by FROM pg_sequences WHERE schemaname = ? AND sequencename = ?",
+                Long.class, schema, sequenceName)
+                .stream().findFirst().orElse(null);
+    }
+}
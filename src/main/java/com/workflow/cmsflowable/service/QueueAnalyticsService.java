@@ -1,17 +1,27 @@
 package com.workflow.cmsflowable.service;
 
+import com.workflow.cmsflowable.dto.response.QueueMetricsTrendResponse;
+import com.workflow.cmsflowable.dto.response.QueuePerformanceMetricsResponse;
+import com.workflow.cmsflowable.entity.QueuePerformanceMetric;
 import com.workflow.cmsflowable.enums.TaskStatus;
+import com.workflow.cmsflowable.repository.QueuePerformanceMetricRepository;
 import com.workflow.cmsflowable.repository.QueueTaskRepository;
+import com.workflow.cmsflowable.repository.projection.CompletionTimePercentiles;
+import com.workflow.cmsflowable.repository.projection.QueueTaskSummary;
+import com.workflow.cmsflowable.repository.projection.RollupCompletionTotals;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +30,7 @@ import java.util.Map;
 public class QueueAnalyticsService {
     
     private final QueueTaskRepository queueTaskRepository;
+    private final QueuePerformanceMetricRepository queuePerformanceMetricRepository;
     
     /**
      * Get overall queue analytics dashboard
@@ -27,26 +38,29 @@ public class QueueAnalyticsService {
     public Map<String, Object> getQueueDashboard() {
         Map<String, Object> dashboard = new HashMap<>();
         
-        // Get all queue names
-        List<String> queueNames = queueTaskRepository.findDistinctQueueNames();
+        List<QueueTaskSummary> summaries = summarizeQueues();
+        
+        List<String> queueNames = summaries.stream()
+                .map(QueueTaskSummary::getQueueName)
+                .toList();
         dashboard.put("totalQueues", queueNames.size());
         dashboard.put("queueNames", queueNames);
         
-        // Overall statistics
-        dashboard.put("totalTasks", queueTaskRepository.count());
-        dashboard.put("openTasks", queueTaskRepository.countByStatus(TaskStatus.OPEN));
-        dashboard.put("claimedTasks", queueTaskRepository.countByStatus(TaskStatus.CLAIMED));
-        dashboard.put("completedTasks", queueTaskRepository.countByStatus(TaskStatus.COMPLETED));
+        // Overall statistics (folded from the per-queue rows)
+        dashboard.put("totalTasks", summaries.stream().mapToLong(QueueTaskSummary::getTotalTasks).sum());
+        dashboard.put("openTasks", summaries.stream().mapToLong(QueueTaskSummary::getOpenTasks).sum());
+        dashboard.put("claimedTasks", summaries.stream().mapToLong(QueueTaskSummary::getClaimedTasks).sum());
+        dashboard.put("completedTasks", summaries.stream().mapToLong(QueueTaskSummary::getCompletedTasks).sum());
         
         // Queue-wise breakdown
         Map<String, Map<String, Long>> queueBreakdown = new HashMap<>();
-        for (String queueName : queueNames) {
+        for (QueueTaskSummary summary : summaries) {
             Map<String, Long> queueStats = new HashMap<>();
-            queueStats.put("total", queueTaskRepository.countByQueueName(queueName));
-            queueStats.put("open", queueTaskRepository.countByQueueNameAndStatus(queueName, TaskStatus.OPEN));
-            queueStats.put("claimed", queueTaskRepository.countByQueueNameAndStatus(queueName, TaskStatus.CLAIMED));
-            queueStats.put("completed", queueTaskRepository.countByQueueNameAndStatus(queueName, TaskStatus.COMPLETED));
-            queueBreakdown.put(queueName, queueStats);
+            queueStats.put("total", summary.getTotalTasks());
+            queueStats.put("open", summary.getOpenTasks());
+            queueStats.put("claimed", summary.getClaimedTasks());
+            queueStats.put("completed", summary.getCompletedTasks());
+            queueBreakdown.put(summary.getQueueName(), queueStats);
         }
         dashboard.put("queueBreakdown", queueBreakdown);
         
@@ -59,34 +73,24 @@ public class QueueAnalyticsService {
     public Map<String, Object> getQueueAnalytics(String queueName) {
         Map<String, Object> analytics = new HashMap<>();
         
+        Instant now = Instant.now();
+        Optional<QueueTaskSummary> summary = queueTaskRepository.summarizeQueue(queueName,
+                now.minus(1, ChronoUnit.HOURS),
+                now.minus(4, ChronoUnit.HOURS),
+                now.minus(1, ChronoUnit.DAYS),
+                now.minus(7, ChronoUnit.DAYS));
+        
         analytics.put("queueName", queueName);
-        analytics.put("totalTasks", queueTaskRepository.countByQueueName(queueName));
-        analytics.put("openTasks", queueTaskRepository.countByQueueNameAndStatus(queueName, TaskStatus.OPEN));
-        analytics.put("claimedTasks", queueTaskRepository.countByQueueNameAndStatus(queueName, TaskStatus.CLAIMED));
-        analytics.put("completedTasks", queueTaskRepository.countByQueueNameAndStatus(queueName, TaskStatus.COMPLETED));
+        analytics.put("totalTasks", summary.map(QueueTaskSummary::getTotalTasks).orElse(0L));
+        analytics.put("openTasks", summary.map(QueueTaskSummary::getOpenTasks).orElse(0L));
+        analytics.put("claimedTasks", summary.map(QueueTaskSummary::getClaimedTasks).orElse(0L));
+        analytics.put("completedTasks", summary.map(QueueTaskSummary::getCompletedTasks).orElse(0L));
         
         // Age analysis for open tasks
-        Instant now = Instant.now();
-        Instant oneHourAgo = now.minus(1, ChronoUnit.HOURS);
-        Instant oneDayAgo = now.minus(1, ChronoUnit.DAYS);
-        Instant oneWeekAgo = now.minus(7, ChronoUnit.DAYS);
-        
         Map<String, Object> ageAnalysis = new HashMap<>();
-        ageAnalysis.put("openTasksOlderThan1Hour", 
-            queueTaskRepository.findByQueueNameAndStatusOrderByPriorityDescCreatedAtAsc(queueName, TaskStatus.OPEN)
-                .stream()
-                .filter(task -> task.getCreatedAt().isBefore(oneHourAgo))
-                .count());
-        ageAnalysis.put("openTasksOlderThan1Day", 
-            queueTaskRepository.findByQueueNameAndStatusOrderByPriorityDescCreatedAtAsc(queueName, TaskStatus.OPEN)
-                .stream()
-                .filter(task -> task.getCreatedAt().isBefore(oneDayAgo))
-                .count());
-        ageAnalysis.put("openTasksOlderThan1Week", 
-            queueTaskRepository.findByQueueNameAndStatusOrderByPriorityDescCreatedAtAsc(queueName, TaskStatus.OPEN)
-                .stream()
-                .filter(task -> task.getCreatedAt().isBefore(oneWeekAgo))
-                .count());
+        ageAnalysis.put("openTasksOlderThan1Hour", summary.map(QueueTaskSummary::getOpenOlderThan1Hour).orElse(0L));
+        ageAnalysis.put("openTasksOlderThan1Day", summary.map(QueueTaskSummary::getOpenOlderThan1Day).orElse(0L));
+        ageAnalysis.put("openTasksOlderThan1Week", summary.map(QueueTaskSummary::getOpenOlderThan1Week).orElse(0L));
         
         analytics.put("ageAnalysis", ageAnalysis);
         
@@ -127,44 +131,67 @@ public class QueueAnalyticsService {
     }
     
     /**
-     * Get performance metrics
+     * Get performance metrics for the last 7 full UTC days. Counts and the average come from the
+     * queue_performance_metrics rollups; percentiles and the live backlog still need queue_tasks.
      */
-    public Map<String, Object> getPerformanceMetrics() {
-        Map<String, Object> metrics = new HashMap<>();
-        
-        Instant now = Instant.now();
-        Instant last24Hours = now.minus(1, ChronoUnit.DAYS);
-        Instant lastWeek = now.minus(7, ChronoUnit.DAYS);
+    public QueuePerformanceMetricsResponse getPerformanceMetrics() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate fromDate = today.minusDays(7);
+        Instant windowStart = fromDate.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant windowEnd = today.atStartOfDay(ZoneOffset.UTC).toInstant();
         
-        // Tasks completed in last 24 hours
-        long completedLast24Hours = queueTaskRepository.findByStatusAndCreatedAtBefore(TaskStatus.COMPLETED, now)
-                .stream()
-                .filter(task -> task.getCompletedAt() != null && task.getCompletedAt().isAfter(last24Hours))
-                .count();
-        
-        // Tasks completed in last week
-        long completedLastWeek = queueTaskRepository.findByStatusAndCreatedAtBefore(TaskStatus.COMPLETED, now)
-                .stream()
-                .filter(task -> task.getCompletedAt() != null && task.getCompletedAt().isAfter(lastWeek))
-                .count();
-        
-        metrics.put("completedLast24Hours", completedLast24Hours);
-        metrics.put("completedLastWeek", completedLastWeek);
+        RollupCompletionTotals totals = queuePerformanceMetricRepository.sumCompletions(fromDate, today, today.minusDays(1));
+        long completedLastWeek = totals.getCompletedInWindow() != null ? totals.getCompletedInWindow() : 0L;
         
         // Average completion rate per day (last week)
         double avgCompletionRatePerDay = completedLastWeek / 7.0;
-        metrics.put("avgCompletionRatePerDay", avgCompletionRatePerDay);
         
-        // Backlog metrics
-        long totalBacklog = queueTaskRepository.countByStatus(TaskStatus.OPEN) + 
-                           queueTaskRepository.countByStatus(TaskStatus.CLAIMED);
-        metrics.put("totalBacklog", totalBacklog);
+        // Percentiles are not additive across daily buckets, so they are read from the completed_at range
+        CompletionTimePercentiles percentiles = queueTaskRepository.getCompletionTimePercentiles(windowStart, windowEnd);
+        
+        // Backlog metrics (current state, not a historical figure)
+        long totalBacklog = queueTaskRepository.countByStatusIn(List.of(TaskStatus.OPEN, TaskStatus.CLAIMED));
         
         // Estimated days to clear backlog
         double estimatedDaysToClearBacklog = avgCompletionRatePerDay > 0 ? totalBacklog / avgCompletionRatePerDay : -1;
-        metrics.put("estimatedDaysToClearBacklog", estimatedDaysToClearBacklog);
         
-        return metrics;
+        return QueuePerformanceMetricsResponse.builder()
+                .windowStart(windowStart)
+                .windowEnd(windowEnd)
+                .completedLast24Hours(totals.getCompletedLastDay() != null ? totals.getCompletedLastDay() : 0L)
+                .completedLastWeek(completedLastWeek)
+                .avgCompletionRatePerDay(avgCompletionRatePerDay)
+                .avgCompletionTimeHours(totals.getAvgCompletionTimeHours())
+                .medianCompletionTimeHours(percentiles.getMedianCompletionTimeHours())
+                .p90CompletionTimeHours(percentiles.getP90CompletionTimeHours())
+                .p95CompletionTimeHours(percentiles.getP95CompletionTimeHours())
+                .totalBacklog(totalBacklog)
+                .estimatedDaysToClearBacklog(estimatedDaysToClearBacklog)
+                .build();
+    }
+    
+    /**
+     * Get daily trend for the last N days from the queue_performance_metrics rollups,
+     * for one queue or (queueName == null) for all queues
+     */
+    public List<QueueMetricsTrendResponse> getQueueTrends(String queueName, int days) {
+        LocalDate fromDate = LocalDate.now(ZoneOffset.UTC).minusDays(days);
+        
+        List<QueuePerformanceMetric> metrics = queueName != null
+                ? queuePerformanceMetricRepository.findByQueueNameAndMetricDateGreaterThanEqualOrderByMetricDateAsc(queueName, fromDate)
+                : queuePerformanceMetricRepository.findByMetricDateGreaterThanEqualOrderByMetricDateAscQueueNameAsc(fromDate);
+        
+        return metrics.stream()
+                .map(metric -> QueueMetricsTrendResponse.builder()
+                        .queueName(metric.getQueueName())
+                        .metricDate(metric.getMetricDate())
+                        .tasksCreated(metric.getTasksCreated())
+                        .tasksCompleted(metric.getTasksCompleted())
+                        .tasksEscalated(metric.getTasksEscalated())
+                        .avgCompletionTimeHours(metric.getAvgCompletionTimeHours())
+                        .maxWaitTimeHours(metric.getMaxWaitTimeHours())
+                        .build())
+                .toList();
     }
     
     /**
@@ -173,37 +200,22 @@ public class QueueAnalyticsService {
     public Map<String, Object> getQueueHealthCheck() {
         Map<String, Object> healthCheck = new HashMap<>();
         
-        List<String> queueNames = queueTaskRepository.findDistinctQueueNames();
+        // Warning: open tasks older than 4 hours; critical: older than 24 hours
         Map<String, String> queueHealth = new HashMap<>();
         
-        Instant now = Instant.now();
-        Instant warningThreshold = now.minus(4, ChronoUnit.HOURS); // Tasks older than 4 hours
-        Instant criticalThreshold = now.minus(24, ChronoUnit.HOURS); // Tasks older than 24 hours
-        
-        for (String queueName : queueNames) {
-            long openTasks = queueTaskRepository.countByQueueNameAndStatus(queueName, TaskStatus.OPEN);
+        for (QueueTaskSummary summary : summarizeQueues()) {
+            long openTasks = summary.getOpenTasks();
+            long oldTasks = summary.getOpenOlderThan1Day();
+            long warningTasks = summary.getOpenOlderThan4Hours() - oldTasks;
             
             if (openTasks == 0) {
-                queueHealth.put(queueName, "HEALTHY");
-                continue;
-            }
-            
-            long oldTasks = queueTaskRepository.findByQueueNameAndStatusOrderByPriorityDescCreatedAtAsc(queueName, TaskStatus.OPEN)
-                    .stream()
-                    .filter(task -> task.getCreatedAt().isBefore(criticalThreshold))
-                    .count();
-            
-            long warningTasks = queueTaskRepository.findByQueueNameAndStatusOrderByPriorityDescCreatedAtAsc(queueName, TaskStatus.OPEN)
-                    .stream()
-                    .filter(task -> task.getCreatedAt().isBefore(warningThreshold) && task.getCreatedAt().isAfter(criticalThreshold))
-                    .count();
-            
-            if (oldTasks > 0) {
-                queueHealth.put(queueName, "CRITICAL");
+                queueHealth.put(summary.getQueueName(), "HEALTHY");
+            } else if (oldTasks > 0) {
+                queueHealth.put(summary.getQueueName(), "CRITICAL");
             } else if (warningTasks > 0 || openTasks > 100) {
-                queueHealth.put(queueName, "WARNING");
+                queueHealth.put(summary.getQueueName(), "WARNING");
             } else {
-                queueHealth.put(queueName, "HEALTHY");
+                queueHealth.put(summary.getQueueName(), "HEALTHY");
             }
         }
         
@@ -218,4 +230,16 @@ public class QueueAnalyticsService {
         
         return healthCheck;
     }
+    
+    /**
+     * One grouped query for every queue, with age buckets relative to now
+     */
+    private List<QueueTaskSummary> summarizeQueues() {
+        Instant now = Instant.now();
+        return queueTaskRepository.summarizeQueues(
+                now.minus(1, ChronoUnit.HOURS),
+                now.minus(4, ChronoUnit.HOURS),
+                now.minus(1, ChronoUnit.DAYS),
+                now.minus(7, ChronoUnit.DAYS));
+    }
 }
\ No newline at end of file
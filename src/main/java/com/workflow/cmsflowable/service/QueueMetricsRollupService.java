@@ -0,0 +1,71 @@
+package com.workflow.cmsflowable.service;
+
+import com.workflow.cmsflowable.repository.QueuePerformanceMetricRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Incrementally folds queue_tasks activity into daily per-queue rows of queue_performance_metrics.
+ * Each run only recomputes the days touched since the previous run, so its cost follows recent
+ * activity rather than the size of queue_tasks. The upsert is idempotent, so concurrent nodes are safe.
+ */
+@Service
+@Slf4j
+public class QueueMetricsRollupService {
+    
+    private final QueuePerformanceMetricRepository queuePerformanceMetricRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${cms.queue.rollup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cms.queue.rollup.backfill-days:30}")
+    private int backfillDays;
+    
+    // Day (UTC) the last successful run started in; null until the first run after startup
+    private final AtomicReference<LocalDate> watermark = new AtomicReference<>();
+    
+    public QueueMetricsRollupService(QueuePerformanceMetricRepository queuePerformanceMetricRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.queuePerformanceMetricRepository = queuePerformanceMetricRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Scheduled(cron = "${cms.queue.rollup.cron:0 5 * * * *}")
+    public void scheduledRollup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rollup();
+        } catch (Exception e) {
+            log.error("Queue metrics rollup failed: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Recompute every bucket from the watermark day up to today, in its own transaction so a failure
+     * rolls back here and reaches the caller as the original exception. The watermark only advances
+     * after the upsert committed.
+     */
+    public int rollup() {
+        Instant now = Instant.now();
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        LocalDate fromDate = watermark.get() != null ? watermark.get() : today.minusDays(backfillDays);
+        
+        Integer rows = transactionTemplate.execute(status -> queuePerformanceMetricRepository.rollupFrom(fromDate, now));
+        watermark.set(today);
+        
+        log.info("Queue metrics rollup refreshed {} daily buckets from {}", rows, fromDate);
+        return rows;
+    }
+}
@@ -0,0 +1,197 @@
+package com.workflow.cmsflowable.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.cmsflowable.entity.QueueTask;
+import com.workflow.cmsflowable.model.QueueTaskLifecycleEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers queue_tasks mutations raised by engine task events and writes them as JDBC batches
+ * (one per mutation kind) just before the surrounding transaction commits.
+ * Without an active transaction the mutation is written immediately.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueTaskBatchWriter {
+    
+    private static final String PENDING_KEY = QueueTaskBatchWriter.class.getName() + ".PENDING";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${cms.database.schema:cms_flowable_workflow}")
+    private String schema;
+    
+    private enum Kind { INSERT, ASSIGN, COMPLETE }
+    
+    private record Mutation(Kind kind, QueueTask task) {}
+    
+    /**
+     * Insert a new OPEN queue task (ignored if the task is already queued)
+     */
+    public void enqueueInsert(QueueTask queueTask) {
+        enqueue(new Mutation(Kind.INSERT, queueTask));
+    }
+    
+    /**
+     * Apply the task's assignee: CLAIMED when assigned, back to OPEN when unassigned
+     */
+    public void enqueueAssignment(QueueTask queueTask) {
+        enqueue(new Mutation(Kind.ASSIGN, queueTask));
+    }
+    
+    /**
+     * Mark the queue task COMPLETED
+     */
+    public void enqueueCompletion(QueueTask queueTask) {
+        enqueue(new Mutation(Kind.COMPLETE, queueTask));
+    }
+    
+    private void enqueue(Mutation mutation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            flush(List.of(mutation));
+            return;
+        }
+        
+        @SuppressWarnings("unchecked")
+        List<Mutation> pending = (List<Mutation>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<Mutation> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    flush(buffer);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = buffer;
+        }
+        pending.add(mutation);
+    }
+    
+    private void flush(List<Mutation> mutations) {
+        if (mutations.isEmpty()) {
+            return;
+        }
+        
+        List<QueueTask> inserts = tasksOf(mutations, Kind.INSERT);
+        List<QueueTask> assignments = tasksOf(mutations, Kind.ASSIGN);
+        List<QueueTask> completions = tasksOf(mutations, Kind.COMPLETE);
+        
+        // Written grouped by kind; the rows each statement changed, in the order they were written
+        List<QueueTask> applied = new ArrayList<>();
+        if (!inserts.isEmpty()) {
+            applied.addAll(changed(inserts, jdbcTemplate.batchUpdate(
+                    "INSERT INTO " + schema + ".queue_tasks (task_id, process_instance_id, process_definition_key, " +
+                    "task_definition_key, task_name, queue_name, assignee, status, priority, created_at, task_data, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), 0) ON CONFLICT (task_id) DO NOTHING",
+                    inserts, inserts.size(), this::bindInsert)));
+        }
+        if (!assignments.isEmpty()) {
+            applied.addAll(changed(assignments, jdbcTemplate.batchUpdate(
+                    "UPDATE " + schema + ".queue_tasks SET assignee = ?, status = ?, claimed_at = ?, version = version + 1 " +
+                    "WHERE task_id = ? AND status <> 'COMPLETED'",
+                    assignments, assignments.size(), (ps, task) -> {
+                        ps.setString(1, task.getAssignee());
+                        ps.setString(2, task.getStatus().name());
+                        ps.setObject(3, toUtc(task.getClaimedAt()), Types.TIMESTAMP);
+                        ps.setString(4, task.getTaskId());
+                    })));
+        }
+        if (!completions.isEmpty()) {
+            applied.addAll(changed(completions, jdbcTemplate.batchUpdate(
+                    "UPDATE " + schema + ".queue_tasks SET status = 'COMPLETED', completed_at = ?, version = version + 1 " +
+                    "WHERE task_id = ? AND status <> 'COMPLETED'",
+                    completions, completions.size(), (ps, task) -> {
+                        ps.setObject(1, toUtc(task.getCompletedAt()), Types.TIMESTAMP);
+                        ps.setString(2, task.getTaskId());
+                    })));
+        }
+        
+        log.debug("Flushed queue task mutations: {} inserts, {} assignments, {} completions ({} rows changed)",
+                inserts.size(), assignments.size(), completions.size(), applied.size());
+        
+        // Keep in-process consumers (e.g. the queue index) in step; delivered after commit. Published in
+        // write order and only for changed rows, so the last event per task matches the row's final state
+        applied.forEach(task -> eventPublisher.publishEvent(QueueTaskLifecycleEvent.of(task)));
+    }
+    
+    /**
+     * Tasks whose statement changed a row; a driver that reports no count (SUCCESS_NO_INFO) counts as changed
+     */
+    private List<QueueTask> changed(List<QueueTask> tasks, int[][] updateCounts) {
+        List<QueueTask> changed = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    changed.add(tasks.get(index));
+                }
+                index++;
+            }
+        }
+        return changed;
+    }
+    
+    private void bindInsert(PreparedStatement ps, QueueTask task) throws SQLException {
+        ps.setString(1, task.getTaskId());
+        ps.setString(2, task.getProcessInstanceId());
+        ps.setString(3, task.getProcessDefinitionKey());
+        ps.setString(4, task.getTaskDefinitionKey());
+        ps.setString(5, task.getTaskName());
+        ps.setString(6, task.getQueueName());
+        ps.setString(7, task.getAssignee());
+        ps.setString(8, task.getStatus().name());
+        ps.setInt(9, task.getPriority());
+        ps.setObject(10, toUtc(task.getCreatedAt()), Types.TIMESTAMP);
+        ps.setString(11, toJson(task));
+    }
+    
+    private List<QueueTask> tasksOf(List<Mutation> mutations, Kind kind) {
+        return mutations.stream()
+                .filter(mutation -> mutation.kind() == kind)
+                .map(Mutation::task)
+                .toList();
+    }
+    
+    // queue_tasks timestamps are stored as UTC wall-clock time (hibernate.jdbc.time_zone = UTC)
+    private LocalDateTime toUtc(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
+    
+    private String toJson(QueueTask task) {
+        if (task.getTaskData() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(task.getTaskData());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize task data for task {}: {}", task.getTaskId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,42 +1,100 @@
 package com.workflow.cmsflowable.service;
 
+import com.workflow.cmsflowable.entity.QueueTask;
+import com.workflow.cmsflowable.enums.TaskStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
 import org.flowable.common.engine.api.delegate.event.FlowableEvent;
 import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.engine.impl.util.ProcessDefinitionUtil;
+import org.flowable.identitylink.api.IdentityLinkInfo;
+import org.flowable.identitylink.api.IdentityLinkType;
+import org.flowable.task.api.Task;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps queue_tasks in step with engine user tasks. Runs inside the engine transaction and
+ * hands each mutation to {@link QueueTaskBatchWriter}, which writes them in one batch per kind
+ * when that transaction commits.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class QueueTaskEventListener implements FlowableEventListener {
     
     private final QueueTaskService queueTaskService;
+    private final QueueTaskBatchWriter queueTaskBatchWriter;
     
     @Override
     public void onEvent(FlowableEvent event) {
-        if (event.getType() == FlowableEngineEventType.PROCESS_STARTED) {
-            handleProcessStarted(event);
+        if (!(event instanceof FlowableEntityEvent entityEvent) || !(entityEvent.getEntity() instanceof Task task)) {
+            return;
         }
-        // Task events will be handled through the existing workflow service integration
-        // to avoid compatibility issues with different Flowable versions
-    }
-    
-    private void handleProcessStarted(FlowableEvent event) {
+        if (task.getProcessInstanceId() == null) {
+            // Standalone tasks are not routed to queues
+            return;
+        }
+        
         try {
-            log.info("Process started event received");
-            
-            // For now, we'll rely on the existing CaseWorkflowService integration
-            // to populate queue tasks rather than using event listeners
-            log.debug("Queue task population handled by CaseWorkflowService");
-            
+            if (event.getType() == FlowableEngineEventType.TASK_CREATED) {
+                handleTaskCreated(task);
+            } else if (event.getType() == FlowableEngineEventType.TASK_ASSIGNED) {
+                handleTaskAssigned(task);
+            } else if (event.getType() == FlowableEngineEventType.TASK_COMPLETED) {
+                handleTaskCompleted(task);
+            }
         } catch (Exception e) {
-            log.error("Failed to handle process started event: {}", e.getMessage(), e);
+            log.error("Failed to handle {} event for task {}: {}", event.getType(), task.getId(), e.getMessage(), e);
             // Don't throw exception to avoid disrupting the workflow
         }
     }
     
+    private void handleTaskCreated(Task task) {
+        QueueTask queueTask = toQueueTask(task);
+        if (queueTask != null) {
+            queueTaskBatchWriter.enqueueInsert(queueTask);
+        }
+    }
+    
+    private void handleTaskAssigned(Task task) {
+        QueueTask queueTask = toQueueTask(task);
+        if (queueTask == null) {
+            return;
+        }
+        if (task.getAssignee() != null) {
+            queueTask.setStatus(TaskStatus.CLAIMED);
+            queueTask.setClaimedAt(Instant.now());
+        }
+        queueTaskBatchWriter.enqueueAssignment(queueTask);
+    }
+    
+    private void handleTaskCompleted(Task task) {
+        QueueTask queueTask = toQueueTask(task);
+        if (queueTask == null) {
+            return;
+        }
+        queueTask.setStatus(TaskStatus.COMPLETED);
+        queueTask.setCompletedAt(Instant.now());
+        queueTaskBatchWriter.enqueueCompletion(queueTask);
+    }
+    
+    private QueueTask toQueueTask(Task task) {
+        String processDefinitionKey = ProcessDefinitionUtil.getProcessDefinition(task.getProcessDefinitionId()).getKey();
+        
+        // The entity already holds its identity links, so no extra query is needed here
+        List<String> candidateGroups = task.getIdentityLinks().stream()
+                .filter(link -> IdentityLinkType.CANDIDATE.equals(link.getType()) && link.getGroupId() != null)
+                .map(IdentityLinkInfo::getGroupId)
+                .toList();
+        
+        return queueTaskService.buildQueueTask(task, processDefinitionKey, candidateGroups);
+    }
+    
     @Override
     public boolean isFailOnException() {
         return false; // Don't fail the workflow if queue operations fail
@@ -51,4 +109,4 @@ public class QueueTaskEventListener implements FlowableEventListener {
     public String getOnTransaction() {
         return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,191 @@
+package com.workflow.cmsflowable.service;
+
+import com.workflow.cmsflowable.enums.TaskStatus;
+import com.workflow.cmsflowable.model.QueueTaskLifecycleEvent;
+import com.workflow.cmsflowable.repository.QueueTaskRepository;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Optional in-memory index of OPEN queue tasks, ordered per queue by priority (desc) and creation time (asc).
+ * Warmed from queue_tasks at startup and kept current from {@link QueueTaskLifecycleEvent}s after commit,
+ * so "next task" and first-page queue reads do not have to hit the database.
+ * Enable with cms.queue.index.enabled. Each node only sees its own lifecycle events.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueTaskIndex {
+    
+    private static final int DEFAULT_PRIORITY = 50;
+    
+    private static final Comparator<IndexedTask> QUEUE_ORDER = Comparator
+            .comparingInt(IndexedTask::getPriority).reversed()
+            .thenComparing(IndexedTask::getCreatedAt)
+            .thenComparing(IndexedTask::getTaskId);
+    
+    private static final ConcurrentSkipListSet<IndexedTask> EMPTY_QUEUE = new ConcurrentSkipListSet<>(QUEUE_ORDER);
+    
+    private final QueueTaskRepository queueTaskRepository;
+    
+    @Value("${cms.queue.index.enabled:false}")
+    private boolean enabled;
+    
+    private final ConcurrentMap<String, ConcurrentSkipListSet<IndexedTask>> queues = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, IndexedTask> tasksById = new ConcurrentHashMap<>();
+    private volatile boolean warmedUp = false;
+    
+    // Ids changed by lifecycle events before warm-up finished; their snapshot rows may be stale
+    private final Set<String> changedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Load all OPEN tasks (scalar columns only) once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        
+        // Events are recorded in changedDuringWarmUp from startup on, so this covers changes
+        // committed both before and while the snapshot is read
+        List<Object[]> rows = queueTaskRepository.findIndexRowsByStatus(TaskStatus.OPEN);
+        
+        synchronized (this) {
+            int skipped = 0;
+            for (Object[] row : rows) {
+                IndexedTask task = IndexedTask.builder()
+                        .taskId((String) row[0])
+                        .processInstanceId((String) row[1])
+                        .processDefinitionKey((String) row[2])
+                        .taskDefinitionKey((String) row[3])
+                        .taskName((String) row[4])
+                        .queueName((String) row[5])
+                        .assignee((String) row[6])
+                        .priority(row[7] != null ? (Integer) row[7] : DEFAULT_PRIORITY)
+                        .createdAt((Instant) row[8])
+                        .build();
+                // A lifecycle event for this task (claim, completion or insert) is at least as new as the snapshot
+                if (changedDuringWarmUp.contains(task.getTaskId())) {
+                    skipped++;
+                    continue;
+                }
+                if (tasksById.putIfAbsent(task.getTaskId(), task) == null) {
+                    queueFor(task.getQueueName()).add(task);
+                }
+            }
+            
+            warmedUp = true;
+            changedDuringWarmUp.clear();
+            log.info("Queue task index warmed up with {} open tasks across {} queues ({} snapshot rows superseded by events)",
+                    tasksById.size(), queues.size(), skipped);
+        }
+    }
+    
+    /**
+     * Apply a committed queue task change to the index
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueTaskLifecycleEvent(QueueTaskLifecycleEvent event) {
+        if (!enabled) {
+            return;
+        }
+        
+        if (warmedUp) {
+            apply(event);
+            return;
+        }
+        // Serialized with the snapshot load so a stale snapshot row cannot land after this event
+        synchronized (this) {
+            if (!warmedUp) {
+                changedDuringWarmUp.add(event.getTaskId());
+            }
+            apply(event);
+        }
+    }
+    
+    private void apply(QueueTaskLifecycleEvent event) {
+        IndexedTask previous = tasksById.remove(event.getTaskId());
+        if (previous != null) {
+            queueFor(previous.getQueueName()).remove(previous);
+        }
+        
+        if (event.getStatus() == TaskStatus.OPEN) {
+            IndexedTask task = IndexedTask.builder()
+                    .taskId(event.getTaskId())
+                    .processInstanceId(event.getProcessInstanceId())
+                    .processDefinitionKey(event.getProcessDefinitionKey())
+                    .taskDefinitionKey(event.getTaskDefinitionKey())
+                    .taskName(event.getTaskName())
+                    .queueName(event.getQueueName())
+                    .assignee(event.getAssignee())
+                    .priority(event.getPriority() != null ? event.getPriority() : DEFAULT_PRIORITY)
+                    .createdAt(event.getCreatedAt() != null ? event.getCreatedAt() : Instant.now())
+                    .build();
+            tasksById.put(task.getTaskId(), task);
+            queueFor(task.getQueueName()).add(task);
+        }
+    }
+    
+    /**
+     * Whether reads may be served from the index
+     */
+    public boolean isServing() {
+        return enabled && warmedUp;
+    }
+    
+    /**
+     * Highest priority, oldest unassigned task in the queue
+     */
+    public Optional<IndexedTask> peekNext(String queueName) {
+        return queues.getOrDefault(queueName, EMPTY_QUEUE).stream()
+                .filter(task -> task.getAssignee() == null)
+                .findFirst();
+    }
+    
+    /**
+     * First {@code limit} OPEN tasks of the queue in queue order
+     */
+    public List<IndexedTask> firstPage(String queueName, boolean unassignedOnly, int limit) {
+        return queues.getOrDefault(queueName, EMPTY_QUEUE).stream()
+                .filter(task -> !unassignedOnly || task.getAssignee() == null)
+                .limit(limit)
+                .toList();
+    }
+    
+    private ConcurrentSkipListSet<IndexedTask> queueFor(String queueName) {
+        return queues.computeIfAbsent(queueName, name -> new ConcurrentSkipListSet<>(QUEUE_ORDER));
+    }
+    
+    /**
+     * Minimal, immutable view of an OPEN queue task held by the index
+     */
+    @lombok.Value
+    @Builder
+    public static class IndexedTask {
+        String taskId;
+        String processInstanceId;
+        String processDefinitionKey;
+        String taskDefinitionKey;
+        String taskName;
+        String queueName;
+        String assignee;
+        int priority;
+        Instant createdAt;
+    }
+}
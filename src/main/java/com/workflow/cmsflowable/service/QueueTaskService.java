@@ -2,18 +2,17 @@ package com.workflow.cmsflowable.service;
 
 import com.workflow.cmsflowable.dto.response.QueueTaskResponse;
 import com.workflow.cmsflowable.entity.QueueTask;
-import com.workflow.cmsflowable.entity.WorkflowMetadata;
 import com.workflow.cmsflowable.enums.TaskStatus;
 import com.workflow.cmsflowable.exception.ResourceNotFoundException;
-import com.workflow.cmsflowable.model.TaskQueueMapping;
+import com.workflow.cmsflowable.model.QueueRoutingTable;
+import com.workflow.cmsflowable.model.QueueTaskLifecycleEvent;
 import com.workflow.cmsflowable.repository.QueueTaskRepository;
-import com.workflow.cmsflowable.repository.WorkflowMetadataRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.flowable.engine.RuntimeService;
-import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.api.Task;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,28 +27,28 @@ import java.util.stream.Collectors;
 @Transactional
 public class QueueTaskService {
     
-    private final WorkflowMetadataRepository workflowMetadataRepository;
+    private final WorkflowMetadataService workflowMetadataService;
     private final QueueTaskRepository queueTaskRepository;
     private final org.flowable.engine.TaskService taskService;
-    private final RuntimeService runtimeService;
+    private final BusinessKeyResolver businessKeyResolver;
+    private final QueueTaskIndex queueTaskIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
-     * Populate queue tasks for a newly started process instance
+     * Populate queue tasks for the active tasks of a process instance. New tasks are queued by
+     * {@link QueueTaskEventListener}; this remains for back-filling instances started without it.
      */
     public void populateQueueTasksForProcessInstance(String processInstanceId, String processDefinitionKey) {
         log.info("Populating queue tasks for process instance: {}", processInstanceId);
         
-        // Find workflow metadata
-        Optional<WorkflowMetadata> metadataOpt = workflowMetadataRepository
-                .findByProcessDefinitionKey(processDefinitionKey);
+        // Compiled routing for this process definition
+        QueueRoutingTable routing = workflowMetadataService.getQueueRouting(processDefinitionKey);
                 
-        if (metadataOpt.isEmpty()) {
+        if (routing == null) {
             log.warn("No workflow metadata found for process: {}", processDefinitionKey);
             return;
         }
         
-        WorkflowMetadata metadata = metadataOpt.get();
-        
         // Get all active tasks for this process instance
         List<Task> tasks = taskService.createTaskQuery()
                 .processInstanceId(processInstanceId)
@@ -61,7 +60,7 @@ public class QueueTaskService {
         // Process each task
         for (Task task : tasks) {
             try {
-                populateQueueTask(task, metadata, processDefinitionKey);
+                populateQueueTask(task, routing, processDefinitionKey);
             } catch (Exception e) {
                 log.error("Failed to populate queue task for task {}: {}", task.getId(), e.getMessage(), e);
                 // Continue with other tasks even if one fails
@@ -69,48 +68,42 @@ public class QueueTaskService {
         }
     }
     
-    private void populateQueueTask(Task task, WorkflowMetadata metadata, String processDefinitionKey) {
+    private void populateQueueTask(Task task, QueueRoutingTable routing, String processDefinitionKey) {
         // Find the queue for this task
-        String queueName = findQueueForTask(task, metadata);
+        String queueName = routing.queueForTask(task.getTaskDefinitionKey());
         
         if (queueName == null) {
-            log.warn("No queue mapping found for task {} in process {}", 
-                task.getTaskDefinitionKey(), processDefinitionKey);
-            return;
+            // Task is not in the deployed model; fall back to its runtime candidate groups
+            List<String> candidateGroups = taskService.getIdentityLinksForTask(task.getId())
+                    .stream()
+                    .filter(link -> "candidate".equals(link.getType()) && link.getGroupId() != null)
+                    .map(link -> link.getGroupId())
+                    .collect(Collectors.toList());
+            queueName = routing.queueForCandidateGroups(candidateGroups);
         }
         
         // Insert into queue_tasks table
         insertQueueTask(task, queueName, processDefinitionKey);
     }
     
-    private String findQueueForTask(Task task, WorkflowMetadata metadata) {
-        // Look for task in the task queue mappings
-        if (metadata.getTaskQueueMappings() != null) {
-            for (TaskQueueMapping mapping : metadata.getTaskQueueMappings()) {
-                if (mapping.getTaskId().equals(task.getTaskDefinitionKey())) {
-                    log.debug("Found queue '{}' for task '{}'", mapping.getQueue(), task.getTaskDefinitionKey());
-                    return mapping.getQueue();
-                }
-            }
-        }
-
-        // Fallback: use candidate groups to find queue
-        List<String> candidateGroups = taskService.getIdentityLinksForTask(task.getId())
-                .stream()
-                .filter(link -> "candidate".equals(link.getType()) && link.getGroupId() != null)
-                .map(link -> link.getGroupId())
-                .collect(Collectors.toList());
+    /**
+     * Build the queue row for an engine task without persisting it, or null when the
+     * process has no workflow metadata. Candidate groups are passed in so callers running
+     * inside the engine can read them from the task entity instead of querying.
+     */
+    public QueueTask buildQueueTask(Task task, String processDefinitionKey, List<String> candidateGroups) {
+        QueueRoutingTable routing = workflowMetadataService.getQueueRouting(processDefinitionKey);
                 
-        for (String group : candidateGroups) {
-            String queue = metadata.getCandidateGroupMappings().get(group);
-            if (queue != null) {
-                log.debug("Found queue '{}' for candidate group '{}'", queue, group);
-                return queue;
-            }
+        if (routing == null) {
+            log.debug("No workflow metadata found for process: {}", processDefinitionKey);
+            return null;
         }
-
-        // Default fallback
-        return metadata.getCandidateGroupMappings().getOrDefault("default", "default-queue");
+        
+        String queueName = routing.queueForTask(task.getTaskDefinitionKey());
+        if (queueName == null) {
+            queueName = routing.queueForCandidateGroups(candidateGroups);
+        }
+        return buildQueueTask(task, queueName, processDefinitionKey);
     }
     
     private void insertQueueTask(Task task, String queueName, String processDefinitionKey) {
@@ -120,6 +113,20 @@ public class QueueTaskService {
             return;
         }
         
+        QueueTask queueTask = buildQueueTask(task, queueName, processDefinitionKey);
+                
+        try {
+            queueTaskRepository.save(queueTask);
+            eventPublisher.publishEvent(QueueTaskLifecycleEvent.of(queueTask));
+            log.info("Successfully inserted task {} into queue '{}' for process instance {}", 
+                task.getId(), queueName, task.getProcessInstanceId());
+        } catch (Exception e) {
+            log.error("Failed to insert queue task: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to insert queue task", e);
+        }
+    }
+    
+    private QueueTask buildQueueTask(Task task, String queueName, String processDefinitionKey) {
         Map<String, Object> taskData = new HashMap<>();
         taskData.put("description", task.getDescription());
         taskData.put("dueDate", task.getDueDate());
@@ -128,27 +135,19 @@ public class QueueTaskService {
         taskData.put("taskDefinitionKey", task.getTaskDefinitionKey());
         taskData.put("formKey", task.getFormKey());
         
-        QueueTask queueTask = QueueTask.builder()
+        return QueueTask.builder()
                 .taskId(task.getId())
                 .processInstanceId(task.getProcessInstanceId())
                 .processDefinitionKey(processDefinitionKey)
                 .taskDefinitionKey(task.getTaskDefinitionKey())
-                .taskName(task.getName())
+                .taskName(task.getName() != null ? task.getName() : task.getTaskDefinitionKey())
                 .queueName(queueName)
                 .assignee(task.getAssignee())
                 .status(TaskStatus.OPEN)
                 .priority(task.getPriority() > 0 ? task.getPriority() : 50)
+                .createdAt(task.getCreateTime() != null ? task.getCreateTime().toInstant() : Instant.now())
                 .taskData(taskData)
                 .build();
-                
-        try {
-            queueTaskRepository.save(queueTask);
-            log.info("Successfully inserted task {} into queue '{}' for process instance {}", 
-                task.getId(), queueName, task.getProcessInstanceId());
-        } catch (Exception e) {
-            log.error("Failed to insert queue task: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to insert queue task", e);
-        }
     }
     
     /**
@@ -162,15 +161,18 @@ public class QueueTaskService {
             tasks = queueTaskRepository.findByQueueNameAndStatusOrderByPriorityDescCreatedAtAsc(queueName, TaskStatus.OPEN);
         }
         
-        return tasks.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(tasks);
     }
     
     /**
      * Get tasks by queue name with pagination
      */
     public List<QueueTaskResponse> getTasksByQueue(String queueName, boolean unassignedOnly, Pageable pageable) {
+        // First page in default queue order can be served from the in-memory index
+        if (queueTaskIndex.isServing() && pageable.getPageNumber() == 0 && pageable.getSort().isUnsorted()) {
+            return mapIndexedToResponses(queueTaskIndex.firstPage(queueName, unassignedOnly, pageable.getPageSize()));
+        }
+        
         List<QueueTask> tasks;
         if (unassignedOnly) {
             tasks = queueTaskRepository.findAvailableTasksInQueue(queueName, TaskStatus.OPEN, pageable);
@@ -178,7 +180,7 @@ public class QueueTaskService {
             tasks = queueTaskRepository.findByQueueNameAndStatusOrderByPriorityDescCreatedAtAsc(queueName, TaskStatus.OPEN, pageable);
         }
         
-        return tasks.stream().map(this::mapToResponse).collect(Collectors.toList());
+        return mapToResponses(tasks);
     }
     
     /**
@@ -188,9 +190,7 @@ public class QueueTaskService {
         List<QueueTask> tasks = queueTaskRepository.findByAssigneeAndStatus(userId, TaskStatus.CLAIMED);
         tasks.addAll(queueTaskRepository.findByAssigneeAndStatus(userId, TaskStatus.OPEN));
         
-        return tasks.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(tasks);
     }
     
     /**
@@ -215,27 +215,48 @@ public class QueueTaskService {
             throw new IllegalArgumentException("User ID cannot be null or empty");
         }
         
-        QueueTask queueTask = queueTaskRepository.findById(taskId)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found: " + taskId));
-        
-        // Validate task can be claimed
-        if (queueTask.getStatus() != TaskStatus.OPEN) {
-            throw new IllegalStateException("Task " + taskId + " cannot be claimed. Current status: " + queueTask.getStatus());
-        }
+        // Conditional update: only succeeds while the task is still open and unassigned (or already ours)
+        Optional<QueueTask> claimed = queueTaskRepository.claimTaskIfAvailable(taskId, userId, Instant.now());
         
-        if (queueTask.getAssignee() != null && !queueTask.getAssignee().equals(userId)) {
+        if (claimed.isEmpty()) {
+            // Work out why the claim was rejected
+            QueueTask queueTask = queueTaskRepository.findById(taskId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found: " + taskId));
+            
+            if (queueTask.getStatus() != TaskStatus.OPEN) {
+                throw new IllegalStateException("Task " + taskId + " cannot be claimed. Current status: " + queueTask.getStatus());
+            }
             throw new IllegalStateException("Task " + taskId + " is already assigned to: " + queueTask.getAssignee());
         }
         
-        queueTask.setAssignee(userId);
-        queueTask.setStatus(TaskStatus.CLAIMED);
-        queueTask.setClaimedAt(Instant.now());
-        
-        queueTaskRepository.save(queueTask);
-        
+        eventPublisher.publishEvent(QueueTaskLifecycleEvent.of(claimed.get()));
         log.info("Task {} claimed by user {} in queue", taskId, userId);
         
-        return mapToResponse(queueTask);
+        return mapToResponse(claimed.get());
+    }
+    
+    /**
+     * Atomically claim the highest priority, oldest unassigned task across the given queues.
+     * Uses FOR UPDATE SKIP LOCKED so concurrent claimers never receive the same task.
+     *
+     * @return the claimed task, or null if none of the queues has an available task
+     */
+    public QueueTaskResponse claimNextTask(Collection<String> queueNames, String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (queueNames == null || queueNames.isEmpty()) {
+            return null;
+        }
+        
+        return queueTaskRepository.claimNextAvailableTask(queueNames, userId, Instant.now())
+                .map(queueTask -> {
+                    eventPublisher.publishEvent(QueueTaskLifecycleEvent.of(queueTask));
+                    log.info("Task {} claimed by user {} from queue '{}'", 
+                        queueTask.getTaskId(), userId, queueTask.getQueueName());
+                    return mapToResponse(queueTask);
+                })
+                .orElse(null);
     }
     
     /**
@@ -260,6 +281,7 @@ public class QueueTaskService {
         queueTask.setClaimedAt(null);
         
         queueTaskRepository.save(queueTask);
+        eventPublisher.publishEvent(QueueTaskLifecycleEvent.of(queueTask));
         
         log.info("Task {} unclaimed in queue", taskId);
         
@@ -288,6 +310,7 @@ public class QueueTaskService {
         queueTask.setCompletedAt(Instant.now());
         
         queueTaskRepository.save(queueTask);
+        eventPublisher.publishEvent(QueueTaskLifecycleEvent.of(queueTask));
         
         log.info("Task {} marked as completed in queue", taskId);
     }
@@ -299,18 +322,22 @@ public class QueueTaskService {
         List<QueueTask> tasks = queueTaskRepository.findByProcessInstanceIdAndStatus(
                 processInstanceId, TaskStatus.OPEN);
         
-        return tasks.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(tasks);
     }
     
     /**
      * Get next available (unassigned) task from queue
      */
     public QueueTaskResponse getNextTaskFromQueue(String queueName) {
-        // Get unassigned tasks ordered by priority (desc) and creation time (asc)
+        if (queueTaskIndex.isServing()) {
+            return queueTaskIndex.peekNext(queueName)
+                    .map(this::mapToResponse)
+                    .orElse(null);
+        }
+        
+        // Get unassigned tasks ordered by priority (desc) and creation time (asc), first row only
         List<QueueTask> tasks = queueTaskRepository.findAvailableTasksInQueue(
-                queueName, TaskStatus.OPEN);
+                queueName, TaskStatus.OPEN, PageRequest.of(0, 1));
         
         if (tasks.isEmpty()) {
             return null;
@@ -344,7 +371,57 @@ public class QueueTaskService {
      * Map QueueTask entity to response DTO
      */
     private QueueTaskResponse mapToResponse(QueueTask queueTask) {
-        QueueTaskResponse response = QueueTaskResponse.builder()
+        QueueTaskResponse response = toResponse(queueTask);
+        response.setBusinessKey(businessKeyResolver.resolve(queueTask.getProcessInstanceId()));
+        return response;
+    }
+    
+    /**
+     * Map an indexed (OPEN) task to response DTO; task data is not held by the index
+     */
+    private QueueTaskResponse mapToResponse(QueueTaskIndex.IndexedTask indexedTask) {
+        QueueTaskResponse response = toResponse(indexedTask);
+        response.setBusinessKey(businessKeyResolver.resolve(indexedTask.getProcessInstanceId()));
+        return response;
+    }
+    
+    /**
+     * Map a list of QueueTask entities, resolving all business keys with one engine query
+     */
+    private List<QueueTaskResponse> mapToResponses(List<QueueTask> queueTasks) {
+        Map<String, String> businessKeys = businessKeyResolver.resolveAll(queueTasks.stream()
+                .map(QueueTask::getProcessInstanceId)
+                .collect(Collectors.toSet()));
+        
+        return queueTasks.stream()
+                .map(queueTask -> {
+                    QueueTaskResponse response = toResponse(queueTask);
+                    response.setBusinessKey(businessKeys.get(queueTask.getProcessInstanceId()));
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Map a list of indexed tasks, resolving all business keys with one engine query.
+     * The index holds scalar columns only, so these responses carry no taskData.
+     */
+    private List<QueueTaskResponse> mapIndexedToResponses(List<QueueTaskIndex.IndexedTask> indexedTasks) {
+        Map<String, String> businessKeys = businessKeyResolver.resolveAll(indexedTasks.stream()
+                .map(QueueTaskIndex.IndexedTask::getProcessInstanceId)
+                .collect(Collectors.toSet()));
+        
+        return indexedTasks.stream()
+                .map(indexedTask -> {
+                    QueueTaskResponse response = toResponse(indexedTask);
+                    response.setBusinessKey(businessKeys.get(indexedTask.getProcessInstanceId()));
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+    
+    private QueueTaskResponse toResponse(QueueTask queueTask) {
+        return QueueTaskResponse.builder()
                 .taskId(queueTask.getTaskId())
                 .processInstanceId(queueTask.getProcessInstanceId())
                 .processDefinitionKey(queueTask.getProcessDefinitionKey())
@@ -359,21 +436,20 @@ public class QueueTaskService {
                 .completedAt(queueTask.getCompletedAt())
                 .taskData(queueTask.getTaskData())
                 .build();
-                
-        // Get business key from Flowable API if process instance exists
-        if (queueTask.getProcessInstanceId() != null) {
-            try {
-                ProcessInstance processInstance = runtimeService.createProcessInstanceQuery()
-                        .processInstanceId(queueTask.getProcessInstanceId())
-                        .singleResult();
-                if (processInstance != null) {
-                    response.setBusinessKey(processInstance.getBusinessKey());
-                }
-            } catch (Exception e) {
-                log.debug("Could not fetch business key for process instance: {}", queueTask.getProcessInstanceId());
-            }
-        }
-        
-        return response;
+    }
+    
+    private QueueTaskResponse toResponse(QueueTaskIndex.IndexedTask indexedTask) {
+        return QueueTaskResponse.builder()
+                .taskId(indexedTask.getTaskId())
+                .processInstanceId(indexedTask.getProcessInstanceId())
+                .processDefinitionKey(indexedTask.getProcessDefinitionKey())
+                .taskDefinitionKey(indexedTask.getTaskDefinitionKey())
+                .taskName(indexedTask.getTaskName())
+                .queueName(indexedTask.getQueueName())
+                .assignee(indexedTask.getAssignee())
+                .status(TaskStatus.OPEN.getValue())
+                .priority(indexedTask.getPriority())
+                .createdAt(indexedTask.getCreatedAt())
+                .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.workflow.cmsflowable.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves values from a Postgres sequence whose INCREMENT BY is the block size: one nextval
+ * reserves a whole block (hi/lo), which is then handed out from memory without locking.
+ * Values are unique across nodes; unused values of a block are lost on restart.
+ */
+final class SequenceBlockAllocator {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final String sequenceName;
+    private final long blockSize;
+    
+    private volatile Block current;
+    
+    private record Block(long last, AtomicLong next) {}
+    
+    /**
+     * @param sequenceName schema-qualified sequence name
+     * @param blockSize    the sequence's INCREMENT BY
+     */
+    SequenceBlockAllocator(JdbcTemplate jdbcTemplate, String sequenceName, long blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceName = sequenceName;
+        this.blockSize = blockSize;
+    }
+    
+    long next() {
+        while (true) {
+            Block block = current;
+            if (block != null) {
+                long value = block.next().getAndIncrement();
+                if (value <= block.last()) {
+                    return value;
+                }
+            }
+            synchronized (this) {
+                // Only the first thread to find the block exhausted reserves the next one
+                if (current == block) {
+                    current = reserveBlock();
+                }
+            }
+        }
+    }
+    
+    private Block reserveBlock() {
+        Long hi = jdbcTemplate.queryForObject("SELECT nextval('" + sequenceName + "')", Long.class);
+        return new Block(hi, new AtomicLong(hi - blockSize + 1));
+    }
+}
@@ -5,6 +5,7 @@ import com.workflow.cmsflowable.dto.request.RegisterWorkflowMetadataRequest;
 import com.workflow.cmsflowable.dto.response.WorkflowMetadataResponse;
 import com.workflow.cmsflowable.entity.WorkflowMetadata;
 import com.workflow.cmsflowable.exception.ResourceNotFoundException;
+import com.workflow.cmsflowable.model.QueueRoutingTable;
 import com.workflow.cmsflowable.model.TaskQueueMapping;
 import com.workflow.cmsflowable.repository.WorkflowMetadataRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,13 +18,18 @@ import org.flowable.engine.repository.Deployment;
 import org.flowable.engine.repository.ProcessDefinition;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +40,12 @@ public class WorkflowMetadataService {
     private final WorkflowMetadataRepository workflowMetadataRepository;
     private final RepositoryService repositoryService;
     
+    // processDefinitionKey -> compiled routing; loaded on first use, replaced wholesale on change
+    private final AtomicReference<Map<String, QueueRoutingTable>> routingTables = new AtomicReference<>();
+    
+    // Bumped by every committed routing change, so a load that overlapped one is not kept
+    private final AtomicLong routingVersion = new AtomicLong();
+    
     /**
      * Register workflow metadata with candidate group to queue mappings
      * User provides: candidateGroup -> queue mapping
@@ -62,6 +74,7 @@ public class WorkflowMetadataService {
                 .build();
         
         metadata = workflowMetadataRepository.save(metadata);
+        publishQueueRouting(metadata);
         log.info("Workflow metadata registered successfully with id: {}", metadata.getId());
         
         return toResponse(metadata);
@@ -107,6 +120,7 @@ public class WorkflowMetadataService {
                 metadata.setDeployed(true);
                 metadata.setDeploymentId(deployment.getId());
                 workflowMetadataRepository.save(metadata);
+                publishQueueRouting(metadata);
                 
                 log.info("Built {} task queue mappings for process {}", 
                     taskMappings.size(), processDefinition.getKey());
@@ -201,6 +215,72 @@ public class WorkflowMetadataService {
         return candidateGroupMappings.getOrDefault("default", "default-queue");
     }
     
+    /**
+     * Compiled queue routing for a process, or null when no workflow metadata is registered.
+     * Served from memory; the database is only read the first time after startup.
+     */
+    @Transactional(readOnly = true)
+    public QueueRoutingTable getQueueRouting(String processDefinitionKey) {
+        return routingTables().get(processDefinitionKey);
+    }
+    
+    private Map<String, QueueRoutingTable> routingTables() {
+        Map<String, QueueRoutingTable> tables = routingTables.get();
+        if (tables == null) {
+            synchronized (routingTables) {
+                tables = routingTables.get();
+                if (tables == null) {
+                    long version = routingVersion.get();
+                    Map<String, QueueRoutingTable> compiled = new HashMap<>();
+                    for (WorkflowMetadata metadata : workflowMetadataRepository.findAll()) {
+                        compiled.put(metadata.getProcessDefinitionKey(), QueueRoutingTable.from(metadata));
+                    }
+                    tables = Map.copyOf(compiled);
+                    routingTables.set(tables);
+                    // A change committed during findAll() may be missing from this load (its swap saw
+                    // no tables); serve the load to this caller only and leave the next read to reload
+                    if (routingVersion.get() != version) {
+                        routingTables.compareAndSet(tables, null);
+                    } else {
+                        log.info("Compiled queue routing for {} workflows", tables.size());
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+    
+    /**
+     * Swap in the recompiled routing for one process once the metadata change has committed
+     */
+    private void publishQueueRouting(WorkflowMetadata metadata) {
+        String processDefinitionKey = metadata.getProcessDefinitionKey();
+        QueueRoutingTable table = QueueRoutingTable.from(metadata);
+        
+        Runnable swap = () -> {
+            routingVersion.incrementAndGet();
+            routingTables.updateAndGet(current -> {
+                if (current == null) {
+                    return null; // Not compiled yet; the first read loads committed metadata
+                }
+                Map<String, QueueRoutingTable> next = new HashMap<>(current);
+                next.put(processDefinitionKey, table);
+                return Map.copyOf(next);
+            });
+        };
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    swap.run();
+                }
+            });
+        } else {
+            swap.run();
+        }
+    }
+    
     /**
      * Get workflow metadata by process definition key
      */
@@ -267,6 +347,7 @@ public class WorkflowMetadataService {
         }
         
         metadata = workflowMetadataRepository.save(metadata);
+        publishQueueRouting(metadata);
         return toResponse(metadata);
     }
     
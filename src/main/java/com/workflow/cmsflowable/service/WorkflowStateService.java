@@ -3,14 +3,17 @@ package com.workflow.cmsflowable.service;
 import org.flowable.engine.RuntimeService;
 import org.flowable.engine.TaskService;
 import org.flowable.engine.runtime.ProcessInstance;
-import org.flowable.identitylink.api.IdentityLink;
+import org.flowable.identitylink.api.IdentityLinkInfo;
 import org.flowable.task.api.Task;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,36 +34,73 @@ public class WorkflowStateService {
     @Value("${cms.deployment.environment:development}")
     private String deploymentEnvironment;
     
+    // Process variables that make up the workflow state; nothing else is loaded
+    private static final List<String> STATE_VARIABLES = List.of(
+        "caseStatus", "ipApproved", "roiApproved", "allegationsSubstantiated", "isArogCase", "caseApprovedForClosure");
+    
+    private static final String SNAPSHOT_ATTRIBUTE_PREFIX = WorkflowStateService.class.getName() + ".snapshot.";
+    
+    /**
+     * Workflow state of one case at the time it was read
+     */
+    public record CaseWorkflowSnapshot(String processInstanceId, Map<String, Object> variables) {}
+    
     /**
      * Get current workflow variables and state for a case
      */
     public Map<String, Object> getCurrentWorkflowVariables(String caseNumber) {
+        return getWorkflowSnapshot(caseNumber).variables();
+    }
+    
+    /**
+     * Workflow state for a case, read once per HTTP request: authorization and status checks
+     * made while handling the same request share the snapshot
+     */
+    public CaseWorkflowSnapshot getWorkflowSnapshot(String caseNumber) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return loadWorkflowSnapshot(caseNumber);
+        }
+        
+        String attributeName = SNAPSHOT_ATTRIBUTE_PREFIX + caseNumber;
+        CaseWorkflowSnapshot snapshot = (CaseWorkflowSnapshot) requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+        if (snapshot == null) {
+            snapshot = loadWorkflowSnapshot(caseNumber);
+            requestAttributes.setAttribute(attributeName, snapshot, RequestAttributes.SCOPE_REQUEST);
+        }
+        return snapshot;
+    }
+    
+    private void forgetWorkflowSnapshot(String caseNumber) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.removeAttribute(SNAPSHOT_ATTRIBUTE_PREFIX + caseNumber, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+    
+    private CaseWorkflowSnapshot loadWorkflowSnapshot(String caseNumber) {
         try {
-            List<ProcessInstance> instances = runtimeService.createProcessInstanceQuery()
-                .variableValueEquals("caseId", caseNumber)
-                .active()
-                .list();
+            ProcessInstance instance = findActiveProcessInstance(caseNumber);
                 
-            if (instances.isEmpty()) {
+            if (instance == null) {
                 log.debug("No active process instance found for case: {}", caseNumber);
-                return getDefaultWorkflowState();
+                return new CaseWorkflowSnapshot(null, Collections.unmodifiableMap(getDefaultWorkflowState()));
             }
             
-            ProcessInstance instance = instances.get(0);
-            Map<String, Object> variables = new HashMap<>(runtimeService.getVariables(instance.getId()));
+            Map<String, Object> variables = new HashMap<>(runtimeService.getVariables(instance.getId(), STATE_VARIABLES));
             
-            // Add current task group information
+            // Add current task group information; candidate groups come back with the task
             List<Task> activeTasks = taskService.createTaskQuery()
                 .processInstanceId(instance.getId())
                 .active()
+                .includeIdentityLinks()
                 .list();
                 
             if (!activeTasks.isEmpty()) {
                 Task currentTask = activeTasks.get(0);
-                List<IdentityLink> identityLinks = taskService.getIdentityLinksForTask(currentTask.getId());
-                String currentTaskGroup = identityLinks.stream()
+                String currentTaskGroup = currentTask.getIdentityLinks().stream()
                     .filter(link -> "candidate".equals(link.getType()) && link.getGroupId() != null)
-                    .map(IdentityLink::getGroupId)
+                    .map(IdentityLinkInfo::getGroupId)
                     .findFirst()
                     .orElse("");
                 variables.put("currentTaskGroup", currentTaskGroup);
@@ -83,14 +123,33 @@ public class WorkflowStateService {
             variables.putIfAbsent("caseApprovedForClosure", false);
             
             log.debug("Retrieved workflow variables for case {}: {}", caseNumber, variables.keySet());
-            return variables;
+            return new CaseWorkflowSnapshot(instance.getId(), Collections.unmodifiableMap(variables));
             
         } catch (Exception e) {
             log.error("Error retrieving workflow variables for case {}: {}", caseNumber, e.getMessage());
-            return getDefaultWorkflowState();
+            return new CaseWorkflowSnapshot(null, Collections.unmodifiableMap(getDefaultWorkflowState()));
         }
     }
     
+    /**
+     * Case processes are started with the case number as business key, which is an indexed
+     * column of the execution table; the caseId variable lookup (a join on the variable
+     * table) is only kept for processes started without one
+     */
+    private ProcessInstance findActiveProcessInstance(String caseNumber) {
+        List<ProcessInstance> instances = runtimeService.createProcessInstanceQuery()
+            .processInstanceBusinessKey(caseNumber)
+            .active()
+            .listPage(0, 1);
+        if (instances.isEmpty()) {
+            instances = runtimeService.createProcessInstanceQuery()
+                .variableValueEquals("caseId", caseNumber)
+                .active()
+                .listPage(0, 1);
+        }
+        return instances.isEmpty() ? null : instances.get(0);
+    }
+    
     /**
      * Get the current workflow status for a case
      */
@@ -153,14 +212,11 @@ public class WorkflowStateService {
         }
         
         try {
-            List<ProcessInstance> instances = runtimeService.createProcessInstanceQuery()
-                .variableValueEquals("caseId", caseNumber)
-                .active()
-                .list();
+            ProcessInstance instance = findActiveProcessInstance(caseNumber);
                 
-            if (!instances.isEmpty()) {
-                ProcessInstance instance = instances.get(0);
+            if (instance != null) {
                 runtimeService.setVariable(instance.getId(), "caseStatus", newStatus);
+                forgetWorkflowSnapshot(caseNumber);
                 log.info("Updated workflow status for case {} to {} (TEST ENVIRONMENT)", caseNumber, newStatus);
             }
         } catch (Exception e) {
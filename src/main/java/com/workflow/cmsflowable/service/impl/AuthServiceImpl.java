@@ -4,13 +4,17 @@ import com.workflow.cmsflowable.dto.request.LoginRequest;
 import com.workflow.cmsflowable.dto.request.UserCreateRequest;
 import com.workflow.cmsflowable.dto.response.LoginResponse;
 import com.workflow.cmsflowable.entity.User;    
+import com.workflow.cmsflowable.model.UserChangedEvent;
 import com.workflow.cmsflowable.repository.UserRepository;
 import com.workflow.cmsflowable.security.JwtTokenProvider;
+import com.workflow.cmsflowable.security.TokenRevocationService;
 import com.workflow.cmsflowable.security.UserPrincipal;
 import com.workflow.cmsflowable.service.AuthService;    
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -35,6 +39,12 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
 public LoginResponse authenticateUser(LoginRequest loginRequest) {
     // ADD DEBUG LOGS HERE
@@ -130,14 +140,20 @@ public LoginResponse authenticateUser(LoginRequest loginRequest) {
 
     @Override
     public boolean validateToken(String token) {
-        return tokenProvider.validateToken(token);
+        Claims claims = tokenProvider.getValidClaims(token);
+        return claims != null && !tokenRevocationService.isRevoked(claims.getId());
     }
 
     @Override
     public void logout(String token) {
-        // In a production system, you might want to blacklist the token
-        // For now, we'll just log the logout
-        logger.info("User logged out with token: {}", token.substring(0, 10) + "...");
+        // Revoke the token id until the token would have expired anyway
+        Claims claims = tokenProvider.getValidClaims(token);
+        if (claims == null || claims.getId() == null) {
+            logger.info("Logout with an invalid or non-revocable token");
+            return;
+        }
+        tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+        logger.info("User {} logged out, token {} revoked", claims.getSubject(), claims.getId());
     }
     
     @Override
@@ -170,6 +186,9 @@ public LoginResponse authenticateUser(LoginRequest loginRequest) {
         User savedUser = userRepository.save(user);
         logger.info("User created successfully with ID: {}", savedUser.getUserId());
         
+        // Drop any principal cached for this username (e.g. a failed lookup that raced the insert)
+        eventPublisher.publishEvent(UserChangedEvent.of(savedUser.getUserId(), savedUser.getUsername()));
+        
         return savedUser;
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.workflow.cmsflowable.service.impl;
 import com.workflow.cmsflowable.entity.User;
 import com.workflow.cmsflowable.repository.UserRepository;
 import com.workflow.cmsflowable.security.UserPrincipal;
+import com.workflow.cmsflowable.security.UserPrincipalCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,8 +11,16 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Loads principals through {@link UserPrincipalCache}; the read transaction is only opened
+ * on a cache miss.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
@@ -20,49 +29,49 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserDetailsServiceImpl(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        logger.debug("Loading user by username: {}", username);
-        
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    logger.error("User not found with username: {}", username);
-                    return new UsernameNotFoundException("User not found with username: " + username);
-                });
-
-        logger.debug("User found: {} with {} roles", user.getUsername(), user.getRoles().size());
-        
-        return UserPrincipal.create(user);
+        return principalCache.getByUsername(username, () -> load(() -> {
+            logger.debug("Loading user by username: {}", username);
+            return userRepository.findByUsername(username);
+        }, "username: " + username));
     }
 
-    @Transactional
     public UserDetails loadUserById(Long id) {
-        logger.debug("Loading user by ID: {}", id);
-        
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.error("User not found with id: {}", id);
-                    return new UsernameNotFoundException("User not found with id: " + id);
-                });
-
-        logger.debug("User found by ID: {} - {}", id, user.getUsername());
-        
-        return UserPrincipal.create(user);
+        return principalCache.getByUserId(id, () -> load(() -> {
+            logger.debug("Loading user by ID: {}", id);
+            return userRepository.findById(id);
+        }, "id: " + id));
     }
 
-    @Transactional
     public UserDetails loadUserByUserId(Long userId) {
-        logger.debug("Loading user by userId: {}", userId);
-        
-        User user = userRepository.findByUserId(userId)
-                .orElseThrow(() -> {
-                    logger.error("User not found with userId: {}", userId);
-                    return new UsernameNotFoundException("User not found with userId: " + userId);
-                });
+        return principalCache.getByUserId(userId, () -> load(() -> {
+            logger.debug("Loading user by userId: {}", userId);
+            return userRepository.findByUserId(userId);
+        }, "userId: " + userId));
+    }
+
+    private UserPrincipal load(Supplier<Optional<User>> query, String description) {
+        return readOnlyTransaction.execute(status -> {
+            User user = query.get()
+                    .orElseThrow(() -> {
+                        logger.error("User not found with {}", description);
+                        return new UsernameNotFoundException("User not found with " + description);
+                    });
+
+            logger.debug("User found: {} with {} roles", user.getUsername(), user.getRoles().size());
 
-        logger.debug("User found by userId: {} - {}", userId, user.getUsername());
-        
-        return UserPrincipal.create(user);
+            return UserPrincipal.create(user);
+        });
     }
-}
\ No newline at end of file
+}
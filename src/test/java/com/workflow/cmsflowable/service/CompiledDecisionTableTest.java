@@ -0,0 +1,76 @@
+package com.workflow.cmsflowable.service;
+
+import org.flowable.dmn.api.DmnDecision;
+import org.flowable.dmn.api.DmnDecisionService;
+import org.flowable.dmn.api.DmnRepositoryService;
+import org.flowable.dmn.engine.DmnEngine;
+import org.flowable.dmn.engine.DmnEngineConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the compiled allegation-classification table against the DMN engine for every
+ * combination of tested input values
+ */
+class CompiledDecisionTableTest {
+    
+    private static final String DECISION_KEY = "allegation-classification";
+    
+    private static DmnEngine dmnEngine;
+    
+    @BeforeAll
+    static void deployDecision() {
+        dmnEngine = DmnEngineConfiguration.createStandaloneInMemDmnEngineConfiguration().buildDmnEngine();
+        dmnEngine.getDmnRepositoryService().createDeployment()
+                .addClasspathResource("dmn/allegation-classification.dmn")
+                .deploy();
+    }
+    
+    @AfterAll
+    static void closeEngine() {
+        dmnEngine.close();
+    }
+    
+    @Test
+    void compiledTableMatchesEngineForAllTestedCombinations() {
+        DmnRepositoryService repositoryService = dmnEngine.getDmnRepositoryService();
+        DmnDecisionService decisionService = dmnEngine.getDmnDecisionService();
+        DmnDecision deployed = repositoryService.createDecisionQuery().decisionKey(DECISION_KEY).latestVersion().singleResult();
+        
+        CompiledDecisionTable table = CompiledDecisionTable.compile(repositoryService.getDmnDefinition(deployed.getId()), DECISION_KEY);
+        List<Map<String, Object>> combinations = table.inputCombinations(Integer.MAX_VALUE).orElseThrow();
+        
+        assertThat(combinations).isNotEmpty();
+        for (Map<String, Object> inputs : combinations) {
+            Map<String, Object> expected = decisionService.createExecuteDecisionBuilder()
+                    .decisionKey(DECISION_KEY)
+                    .variables(inputs)
+                    .executeWithSingleResult();
+            
+            assertThat(normalize(table.evaluate(inputs)))
+                    .as("outputs for %s", inputs)
+                    .isEqualTo(normalize(expected));
+        }
+    }
+    
+    @Test
+    void combinationsAreCappedForVerification() {
+        DmnRepositoryService repositoryService = dmnEngine.getDmnRepositoryService();
+        DmnDecision deployed = repositoryService.createDecisionQuery().decisionKey(DECISION_KEY).latestVersion().singleResult();
+        
+        CompiledDecisionTable table = CompiledDecisionTable.compile(repositoryService.getDmnDefinition(deployed.getId()), DECISION_KEY);
+        
+        assertThat(table.inputCombinations(1)).isEmpty();
+    }
+    
+    private static Map<String, Object> normalize(Map<String, Object> result) {
+        return result == null || result.isEmpty() ? null : new HashMap<>(result);
+    }
+}